@@ -0,0 +1,15 @@
+package com.github.davidmoten.reels;
+
+/**
+ * Convenience class as most of the time we will just implement onMessageAsync.
+ * 
+ * @param <T> message type
+ */
+public abstract class AbstractAsyncActor<T> extends AbstractActor<T> implements AsyncActor<T> {
+
+    @Override
+    public final void onMessage(Message<T> message) {
+        AsyncActor.super.onMessage(message);
+    }
+
+}
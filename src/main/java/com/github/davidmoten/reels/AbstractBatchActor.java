@@ -0,0 +1,15 @@
+package com.github.davidmoten.reels;
+
+/**
+ * Convenience class as most of the time we will just implement onMessages.
+ * 
+ * @param <T> message type
+ */
+public abstract class AbstractBatchActor<T> extends AbstractActor<T> implements BatchActor<T> {
+
+    @Override
+    public final void onMessage(Message<T> message) {
+        BatchActor.super.onMessage(message);
+    }
+
+}
@@ -3,12 +3,17 @@ package com.github.davidmoten.reels;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.github.davidmoten.reels.internal.ActorRefImpl;
+import com.github.davidmoten.reels.internal.ActorRefRouter;
 import com.github.davidmoten.reels.internal.Preconditions;
+import com.github.davidmoten.reels.internal.Throughput;
 import com.github.davidmoten.reels.internal.mailbox.MailboxImmediateFactory;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerForkJoinPool;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerImmediate;
@@ -34,6 +39,15 @@ public final class ActorBuilder<T> {
     private Consumer<? super ActorRef<T>> onStop = null;
     private Consumer<? super ActorRef<T>> preStart = null;
     private MailboxFactory mailboxFactory;
+    private Throughput throughput;
+    private boolean inlineDelivery;
+    private boolean outbox;
+    private int batchMaxSize;
+    private Consumer<? super List<Message<T>>> batchConsumer; // nullable
+    private int asyncMaxInFlight;
+    private Function<? super Message<T>, ? extends CompletionStage<?>> asyncFunction; // nullable
+    private RouterStrategy<T> routerStrategy; // nullable
+    private int routerSize;
 
     ActorBuilder(Context context) {
         this.context = context;
@@ -44,6 +58,8 @@ public final class ActorBuilder<T> {
         Preconditions.checkArgumentNonNull(matchClass, "matchClass");
         Preconditions.checkArgumentNonNull(consumer, "consumer");
         Preconditions.checkArgument(!factory.isPresent(), "cannot set both matches and factory in builder");
+        Preconditions.checkArgument(batchConsumer == null, "cannot set both matches and batch in builder");
+        Preconditions.checkArgument(asyncFunction == null, "cannot set both matches and async in builder");
         matches.add(new Matcher<T, S>(matchClass, null, consumer));
         return this;
     }
@@ -52,6 +68,8 @@ public final class ActorBuilder<T> {
         Preconditions.checkArgumentNonNull(value, "value");
         Preconditions.checkArgumentNonNull(consumer, "consumer");
         Preconditions.checkArgument(!factory.isPresent(), "cannot set both matches and factory in builder");
+        Preconditions.checkArgument(batchConsumer == null, "cannot set both matches and batch in builder");
+        Preconditions.checkArgument(asyncFunction == null, "cannot set both matches and async in builder");
         matches.add(new Matcher<T, S>(null, value, consumer));
         return this;
     }
@@ -65,6 +83,8 @@ public final class ActorBuilder<T> {
     public ActorBuilder<T> actorFactory(Supplier<? extends Actor<T>> factory) {
         Preconditions.checkArgumentNonNull(factory, "factory");
         Preconditions.checkArgument(matches.isEmpty(), "cannot set both matches and factory in builder");
+        Preconditions.checkArgument(batchConsumer == null, "cannot set both batch and factory in builder");
+        Preconditions.checkArgument(asyncFunction == null, "cannot set both async and factory in builder");
         this.factory = Optional.of(factory);
         return this;
     }
@@ -76,6 +96,50 @@ public final class ActorBuilder<T> {
         return match((Class<T>) Object.class, consumer);
     }
 
+    /**
+     * Sets the consumer of batches of messages for this Actor. Messages already
+     * waiting in the mailbox are delivered together (in order) up to
+     * {@code maxSize} at a time. See {@link BatchActor} for how failures are
+     * supervised.
+     * 
+     * @param maxSize  maximum number of messages in a batch
+     * @param consumer processes a batch of messages
+     * @return builder
+     */
+    public ActorBuilder<T> batch(int maxSize, Consumer<? super List<Message<T>>> consumer) {
+        Preconditions.checkArgument(maxSize > 0, "maxSize must be > 0");
+        Preconditions.checkArgumentNonNull(consumer, "consumer");
+        Preconditions.checkArgument(matches.isEmpty(), "cannot set both matches and batch in builder");
+        Preconditions.checkArgument(!factory.isPresent(), "cannot set both batch and factory in builder");
+        Preconditions.checkArgument(asyncFunction == null, "cannot set both batch and async in builder");
+        this.batchMaxSize = maxSize;
+        this.batchConsumer = consumer;
+        return this;
+    }
+
+    /**
+     * Sets the function that starts processing each message for this Actor. The
+     * processing of a message finishes when the returned stage completes and at
+     * most {@code maxInFlight} stages are incomplete at once (no thread is held
+     * while waiting). See {@link AsyncActor} for ordering and how failures are
+     * supervised.
+     * 
+     * @param maxInFlight maximum number of incomplete stages
+     * @param function    starts processing a message and returns a stage that
+     *                    completes when processing has finished
+     * @return builder
+     */
+    public ActorBuilder<T> async(int maxInFlight, Function<? super Message<T>, ? extends CompletionStage<?>> function) {
+        Preconditions.checkArgument(maxInFlight > 0, "maxInFlight must be > 0");
+        Preconditions.checkArgumentNonNull(function, "function");
+        Preconditions.checkArgument(matches.isEmpty(), "cannot set both matches and async in builder");
+        Preconditions.checkArgument(!factory.isPresent(), "cannot set both async and factory in builder");
+        Preconditions.checkArgument(batchConsumer == null, "cannot set both batch and async in builder");
+        this.asyncMaxInFlight = maxInFlight;
+        this.asyncFunction = function;
+        return this;
+    }
+
     /**
      * Sets the scheduler on which processing of messages for this Actor will be
      * scheduled. The default scheduler is {@link SchedulerForkJoinPool#INSTANCE}.
@@ -164,6 +228,95 @@ public final class ActorBuilder<T> {
         });
     }
 
+    /**
+     * Sets the maximum number of messages this Actor will process before yielding
+     * its thread to other actors (and resubmitting itself to its Worker). If not
+     * set the Context default is used (which is unlimited unless configured
+     * otherwise).
+     * 
+     * @param maxMessages maximum number of messages processed per drain
+     * @return builder
+     */
+    public ActorBuilder<T> throughput(int maxMessages) {
+        this.throughput = Throughput.create(maxMessages, 0, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of messages and the time budget for this Actor to
+     * process messages before yielding its thread to other actors (and
+     * resubmitting itself to its Worker).
+     * 
+     * @param maxMessages maximum number of messages processed per drain
+     * @param maxTime     maximum time spent processing messages per drain (0 for
+     *                    no time limit)
+     * @param unit        time unit of maxTime
+     * @return builder
+     */
+    public ActorBuilder<T> throughput(int maxMessages, long maxTime, TimeUnit unit) {
+        this.throughput = Throughput.create(maxMessages, maxTime, unit);
+        return this;
+    }
+
+    /**
+     * Enables inline delivery for this Actor. When a message is told to the Actor
+     * from a thread that its scheduler's worker runs on (for example from another
+     * actor on the same {@link Scheduler#single()} thread) and the Actor is idle
+     * then its messages are processed immediately on the telling thread instead of
+     * being submitted to the worker. This saves a task submission per message in
+     * request-response exchanges between co-located actors. Message ordering is
+     * unaffected. Nested inline drains on a thread are limited to 16 (or the value
+     * of the system property {@code reels.inline.max.depth}) after which delivery
+     * falls back to the worker. Only schedulers whose workers run on a single
+     * thread ({@code single()}, {@code newSingle()}, {@code computationSticky()}
+     * and {@code computationStealing()}) support inline delivery, for others this
+     * setting has no effect.
+     * 
+     * @return builder
+     */
+    public ActorBuilder<T> inlineDelivery() {
+        this.inlineDelivery = true;
+        return this;
+    }
+
+    /**
+     * Enables an outbox for this Actor. While the Actor is processing messages,
+     * messages it tells to other actors are placed in their mailboxes straight
+     * away but the recipients are only notified (their processing scheduled) once
+     * the Actor finishes processing its currently available messages (or reaches
+     * its throughput limit). Each recipient is then notified once no matter how
+     * many messages it was sent. This reduces scheduling overhead for actors that
+     * send many messages per message received (fan-out or broadcast) at the cost
+     * of recipients starting later.
+     * 
+     * @return builder
+     */
+    public ActorBuilder<T> outbox() {
+        this.outbox = true;
+        return this;
+    }
+
+    /**
+     * Makes {@link #build()} return a router over {@code size} routees instead of
+     * a single actor. Each routee is an actor configured by this builder and named
+     * {@code name-i}. The router has no mailbox of its own: {@code tell} (and
+     * {@code ask}) chooses a routee using {@code strategy} on the calling thread
+     * and passes the message straight to it. Stopping the router stops its
+     * routees. The router itself is not registered with its parent (look up a
+     * routee by name instead).
+     * 
+     * @param strategy how a routee is chosen for each message
+     * @param size     number of routees
+     * @return builder
+     */
+    public ActorBuilder<T> router(RouterStrategy<T> strategy, int size) {
+        Preconditions.checkArgumentNonNull(strategy, "strategy");
+        Preconditions.checkArgument(size > 0, "size must be > 0");
+        this.routerStrategy = strategy;
+        this.routerSize = size;
+        return this;
+    }
+
     public ActorRef<T> build() {
         if (supervisor == null) {
             supervisor = ((ActorRefImpl<?>) parent).supervisor();
@@ -178,8 +331,29 @@ public final class ActorBuilder<T> {
                 mailboxFactory = context.mailboxFactory();
             }
         }
-        Supplier<? extends Actor<T>> f = factory.orElse(() -> new MatchingActor<T>(matches, onError, preStart, onStop));
-        return context.createActor(f, name, scheduler, supervisor, parent, mailboxFactory);
+        if (throughput == null) {
+            throughput = context.throughput();
+        }
+        Supplier<? extends Actor<T>> f;
+        if (batchConsumer != null) {
+            f = () -> new BatchingActor<T>(batchMaxSize, batchConsumer, onError, preStart, onStop);
+        } else if (asyncFunction != null) {
+            f = () -> new AsyncFunctionActor<T>(asyncMaxInFlight, asyncFunction, onError, preStart, onStop);
+        } else {
+            f = factory.orElse(() -> new MatchingActor<T>(matches, onError, preStart, onStop));
+        }
+        if (routerStrategy == null) {
+            return context.createActor(f, name, scheduler, supervisor, parent, mailboxFactory, throughput,
+                    inlineDelivery, outbox, false);
+        }
+        // the smallest mailbox strategy needs the routees to count their messages
+        boolean countQueued = routerStrategy.type() == RouterStrategy.Type.SMALLEST_MAILBOX;
+        List<ActorRef<T>> routees = new ArrayList<>(routerSize);
+        for (int i = 0; i < routerSize; i++) {
+            routees.add(context.createActor(f, name + "-" + i, scheduler, supervisor, parent, mailboxFactory,
+                    throughput, inlineDelivery, outbox, countQueued));
+        }
+        return new ActorRefRouter<T>(name, context, parent, routerStrategy, routees);
     }
 
     private static final class Matcher<T, S extends T> {
@@ -194,21 +368,57 @@ public final class ActorBuilder<T> {
         }
     }
 
-    private static final class MatchingActor<T> implements Actor<T> {
+    /**
+     * Base for the actors made from the callbacks given to the builder.
+     */
+    private abstract static class CallbackActor<T> implements Actor<T> {
 
-        private final List<Matcher<T, ? extends T>> matchers;
         private final Consumer<? super Throwable> onError;
         private final Consumer<? super ActorRef<T>> preStart;
         private final Consumer<? super ActorRef<T>> onStop;
 
-        public MatchingActor(List<Matcher<T, ? extends T>> matchers, Consumer<? super Throwable> onError,
-                Consumer<? super ActorRef<T>> preStart, Consumer<? super ActorRef<T>> onStop) {
-            this.matchers = matchers;
+        CallbackActor(Consumer<? super Throwable> onError, Consumer<? super ActorRef<T>> preStart,
+                Consumer<? super ActorRef<T>> onStop) {
             this.onError = onError;
             this.preStart = preStart;
             this.onStop = onStop;
         }
 
+        // passes an error thrown by a message callback to onError or rethrows it
+        // for the supervisor
+        final void handleError(Throwable e) {
+            if (onError != null) {
+                onError.accept(e);
+            } else {
+                Util.rethrow(e);
+            }
+        }
+
+        @Override
+        public void preStart(ActorRef<T> self) {
+            if (preStart != null) {
+                preStart.accept(self);
+            }
+        }
+
+        @Override
+        public void onStop(ActorRef<T> self) {
+            if (onStop != null) {
+                onStop.accept(self);
+            }
+        }
+    }
+
+    private static final class MatchingActor<T> extends CallbackActor<T> {
+
+        private final List<Matcher<T, ? extends T>> matchers;
+
+        public MatchingActor(List<Matcher<T, ? extends T>> matchers, Consumer<? super Throwable> onError,
+                Consumer<? super ActorRef<T>> preStart, Consumer<? super ActorRef<T>> onStop) {
+            super(onError, preStart, onStop);
+            this.matchers = matchers;
+        }
+
         @SuppressWarnings("unchecked")
         @Override
         public void onMessage(Message<T> message) {
@@ -218,30 +428,70 @@ public final class ActorBuilder<T> {
                     try {
                         ((Matcher<T, T>) matcher).consumer.accept(message);
                     } catch (Throwable e) {
-                        if (onError != null) {
-                            onError.accept(e);
-                        } else {
-                            Util.rethrow(e);
-                        }
+                        handleError(e);
                     }
                     return;
                 }
             }
         }
+    }
+
+    private static final class BatchingActor<T> extends CallbackActor<T> implements BatchActor<T> {
+
+        private final int maxBatchSize;
+        private final Consumer<? super List<Message<T>>> consumer;
+
+        BatchingActor(int maxBatchSize, Consumer<? super List<Message<T>>> consumer,
+                Consumer<? super Throwable> onError, Consumer<? super ActorRef<T>> preStart,
+                Consumer<? super ActorRef<T>> onStop) {
+            super(onError, preStart, onStop);
+            this.maxBatchSize = maxBatchSize;
+            this.consumer = consumer;
+        }
 
         @Override
-        public void preStart(ActorRef<T> self) {
-            if (preStart != null) {
-                preStart.accept(self);
+        public void onMessages(List<Message<T>> messages) {
+            try {
+                consumer.accept(messages);
+            } catch (Throwable e) {
+                handleError(e);
             }
         }
 
         @Override
-        public void onStop(ActorRef<T> self) {
-            if (onStop != null) {
-                onStop.accept(self);
+        public int maxBatchSize() {
+            return maxBatchSize;
+        }
+    }
+
+    private static final class AsyncFunctionActor<T> extends CallbackActor<T> implements AsyncActor<T> {
+
+        private final int maxInFlight;
+        private final Function<? super Message<T>, ? extends CompletionStage<?>> function;
+
+        AsyncFunctionActor(int maxInFlight, Function<? super Message<T>, ? extends CompletionStage<?>> function,
+                Consumer<? super Throwable> onError, Consumer<? super ActorRef<T>> preStart,
+                Consumer<? super ActorRef<T>> onStop) {
+            super(onError, preStart, onStop);
+            this.maxInFlight = maxInFlight;
+            this.function = function;
+        }
+
+        @Override
+        public CompletionStage<?> onMessageAsync(Message<T> message) {
+            try {
+                return function.apply(message);
+            } catch (Throwable e) {
+                // a failure of the returned stage goes to the supervisor
+                handleError(e);
+                return null;
             }
         }
+
+        @Override
+        public int maxInFlight() {
+            return maxInFlight;
+        }
     }
 
 }
@@ -2,8 +2,11 @@ package com.github.davidmoten.reels;
 
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.github.davidmoten.reels.internal.ActorRefNone;
+import com.github.davidmoten.reels.internal.AskTimer;
 
 /**
  * Reference that controls the lifecycle and operation of an Actor.
@@ -27,6 +30,31 @@ public interface ActorRef<T> {
      */
     void tell(T message, ActorRef<?> sender);
 
+    /**
+     * Sends the messages in iteration order without a sender.
+     * 
+     * @param messages messages to send
+     */
+    default void tellAll(Iterable<? extends T> messages) {
+        tellAll(messages, ActorRef.none());
+    }
+
+    /**
+     * Sends the messages in iteration order with the given sender. Depending on
+     * the Mailbox the batch may be enqueued with a single atomic operation and the
+     * actor is scheduled to process them once rather than once per message. The
+     * default implementation calls {@link #tell(Object, ActorRef)} for each
+     * message.
+     * 
+     * @param messages messages to send
+     * @param sender   message sender (for replies as an example)
+     */
+    default void tellAll(Iterable<? extends T> messages, ActorRef<?> sender) {
+        for (T message : messages) {
+            tell(message, sender);
+        }
+    }
+
     /**
      * Creates a temporary actor that sends the message to {@code this} and the
      * returned {@link CompletableFuture} waits on a response. The arrival of the
@@ -39,6 +67,27 @@ public interface ActorRef<T> {
      */
     <S> CompletableFuture<S> ask(T message);
 
+    /**
+     * As for {@link #ask(Object)} but the returned {@link CompletableFuture}
+     * completes exceptionally with a {@link TimeoutException} if no response has
+     * arrived within the timeout. Timeouts are timed by a shared timer so no
+     * thread waits on the response and an unanswered ask is released once it
+     * times out. A response that arrives after the timeout is ignored.
+     * 
+     * <p>
+     * The default implementation calls {@link #ask(Object)} and times the
+     * returned future.
+     * 
+     * @param <S>     type of response
+     * @param message message to send to {@code this}
+     * @param timeout maximum time to wait for a response
+     * @param unit    timeout unit
+     * @return future
+     */
+    default <S> CompletableFuture<S> ask(T message, long timeout, TimeUnit unit) {
+        return AskTimer.timeout(this.<S>ask(message), timeout, unit);
+    }
+
     /**
      * Sends a Poison Pill message to the actor which will be stopped when that
      * message is processed. The Poison Pill message does not jump the queue past
@@ -47,10 +96,10 @@ public interface ActorRef<T> {
     void stop();
 
     /**
-     * Sends a Poison Pill message to the actor which will be stopped when that
-     * message is processed. All messages before it in the queue are removed from
-     * the queue and sent to the Dead Letter actor so the Poison Pill message
-     * effectively jumps the queue.
+     * Sends a Poison Pill message to the actor on a separate system message lane
+     * that is processed ahead of the mailbox, so the actor stops without waiting
+     * for already queued messages. Those messages (and any that arrive later) are
+     * discarded.
      */
     void stopNow();
 
@@ -103,6 +152,16 @@ public interface ActorRef<T> {
      */
     <S> Collection<ActorRef<S>> children();
 
+    /**
+     * Returns the number and duration of the blocking sections run by this actor
+     * with {@link Message#blocking(java.util.concurrent.Callable)}.
+     * 
+     * @return blocking statistics
+     */
+    default BlockingStats blockingStats() {
+        return BlockingStats.NONE;
+    }
+
     /**
      * Returns type-safe recasting of ActorRef message type.
      * 
@@ -0,0 +1,53 @@
+package com.github.davidmoten.reels;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An Actor whose processing of a message finishes when the
+ * {@link CompletionStage} returned by {@link #onMessageAsync(Message)}
+ * completes rather than when the method returns. While
+ * {@link #maxInFlight()} stages are incomplete the actor takes no more messages
+ * from its mailbox but doesn't hold a thread either, draining resumes on the
+ * actor's Worker when a stage completes. With the default of one stage in
+ * flight messages are processed strictly one at a time (the next message is
+ * not delivered until the previous stage has completed).
+ * 
+ * <p>
+ * If {@link #onMessageAsync(Message)} throws or the returned stage completes
+ * exceptionally then the Supervisor is passed the message and the error, in
+ * the latter case on the actor's Worker once the stage has completed. Calling
+ * {@link SupervisedActorRef#retry()} from the Supervisor redelivers the
+ * message. Stages still in flight when the actor stops are not cancelled and
+ * their outcomes are ignored.
+ * 
+ * @param <T> message type
+ */
+public interface AsyncActor<T> extends Actor<T> {
+
+    /**
+     * Starts processing a message. The actor's state may be read and changed in
+     * this method but not by the returned stage (use {@link Message#pipeTo} to
+     * bring a result back into the actor). A null return is treated as an already
+     * completed stage.
+     * 
+     * @param message message to be processed
+     * @return stage that completes when processing of the message has finished
+     */
+    CompletionStage<?> onMessageAsync(Message<T> message);
+
+    /**
+     * Returns the maximum number of stages returned by
+     * {@link #onMessageAsync(Message)} that may be incomplete at once.
+     * 
+     * @return maximum number of messages in flight
+     */
+    default int maxInFlight() {
+        return 1;
+    }
+
+    @Override
+    default void onMessage(Message<T> message) {
+        onMessageAsync(message);
+    }
+
+}
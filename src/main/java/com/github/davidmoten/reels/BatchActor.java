@@ -0,0 +1,47 @@
+package com.github.davidmoten.reels;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An Actor that is delivered the messages already waiting in its mailbox as a
+ * batch (up to {@link #maxBatchSize()} messages) rather than one at a time.
+ * Useful for actors that write to a database or socket and can group the
+ * writes.
+ * 
+ * <p>
+ * If {@link #onMessages(List)} throws then the Supervisor is passed the first
+ * message of the batch. Calling {@link SupervisedActorRef#retry()} from the
+ * Supervisor retries the whole batch and a restart or pause takes effect before
+ * the next batch.
+ * 
+ * @param <T> message type
+ */
+public interface BatchActor<T> extends Actor<T> {
+
+    int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    /**
+     * Processes a batch of queued messages in the order they were queued. The
+     * list is never empty and is unmodifiable.
+     * 
+     * @param messages messages to be processed
+     */
+    void onMessages(List<Message<T>> messages);
+
+    /**
+     * Returns the maximum number of messages delivered in one call to
+     * {@link #onMessages(List)}.
+     * 
+     * @return maximum batch size
+     */
+    default int maxBatchSize() {
+        return DEFAULT_MAX_BATCH_SIZE;
+    }
+
+    @Override
+    default void onMessage(Message<T> message) {
+        onMessages(Collections.singletonList(message));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.github.davidmoten.reels;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts and times the blocking sections run by an actor with
+ * {@link Message#blocking(java.util.concurrent.Callable)}.
+ */
+public final class BlockingStats {
+
+    public static final BlockingStats NONE = new BlockingStats(0, 0, 0);
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    public BlockingStats(long count, long totalNanos, long maxNanos) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Returns the number of blocking sections that have finished.
+     * 
+     * @return number of blocking sections
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the total time spent in blocking sections.
+     * 
+     * @param unit time unit of the result
+     * @return total time blocked
+     */
+    public long totalTime(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the longest time spent in one blocking section.
+     * 
+     * @param unit time unit of the result
+     * @return maximum time blocked
+     */
+    public long maxTime(TimeUnit unit) {
+        return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingStats[count=" + count + ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos + "]";
+    }
+}
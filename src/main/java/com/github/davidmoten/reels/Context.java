@@ -2,18 +2,27 @@ package com.github.davidmoten.reels;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
+import com.github.davidmoten.reels.internal.ActorRefAggregator;
 import com.github.davidmoten.reels.internal.ActorRefImpl;
 import com.github.davidmoten.reels.internal.Constants;
 import com.github.davidmoten.reels.internal.DeadLetterActor;
 import com.github.davidmoten.reels.internal.Preconditions;
 import com.github.davidmoten.reels.internal.RootActorRefImpl;
+import com.github.davidmoten.reels.internal.Throughput;
 import com.github.davidmoten.reels.internal.util.Util;
 
 /**
@@ -50,13 +59,15 @@ public final class Context {
 
     private final MailboxFactory mailboxFactory;
 
+    private final Throughput throughput;
+
     Context() {
         this(Supervisor.defaultSupervisor(), () -> createActorObject(DeadLetterActor.class),
-                Scheduler.defaultScheduler(), MailboxFactory.unbounded());
+                Scheduler.defaultScheduler(), MailboxFactory.defaultMailboxFactory(), Throughput.UNLIMITED);
     }
 
     Context(Supervisor supervisor, Supplier<? extends Actor<DeadLetter>> deadLetterActorFactory, Scheduler scheduler,
-            MailboxFactory mailboxFactory) {
+            MailboxFactory mailboxFactory, Throughput throughput) {
         this.supervisor = supervisor;
         // TODO this escaping the constructor
         this.root = new RootActorRefImpl(Constants.ROOT_ACTOR_NAME, ActorDoNothing::create, scheduler, this,
@@ -65,6 +76,7 @@ public final class Context {
         // set this before calling createActor
         this.mailboxFactory = mailboxFactory;
         this.scheduler = scheduler;
+        this.throughput = throughput;
 
         this.deadLetterActor = (ActorRefImpl<DeadLetter>) createActor( //
                 deadLetterActorFactory, //
@@ -115,11 +127,13 @@ public final class Context {
     public <T> ActorRef<T> createActor(Supplier<? extends Actor<T>> actorFactory, String name,
             Scheduler processMessagesOn, Supervisor supervisor, Optional<ActorRef<?>> parent) {
         Preconditions.checkArgumentNonNull(parent, "parent");
-        return createActor(actorFactory, name, processMessagesOn, supervisor, parent.orElse(null), mailboxFactory);
+        return createActor(actorFactory, name, processMessagesOn, supervisor, parent.orElse(null), mailboxFactory,
+                throughput, false, false, false);
     }
 
     <T> ActorRef<T> createActor(Supplier<? extends Actor<T>> actorFactory, String name, Scheduler processMessagesOn,
-            Supervisor supervisor, ActorRef<?> parent, MailboxFactory mailboxFactory) {
+            Supervisor supervisor, ActorRef<?> parent, MailboxFactory mailboxFactory, Throughput throughput,
+            boolean inlineDelivery, boolean outbox, boolean countQueued) {
         Preconditions.checkArgumentNonNull(actorFactory, "actorFactory");
         Preconditions.checkArgumentNonNull(name, "name");
         Preconditions.checkArgumentNonNull(processMessagesOn, "processMessagesOn");
@@ -127,7 +141,8 @@ public final class Context {
         if (state.get() != STATE_ACTIVE) {
             throw new CreateException("cannot create actor because Context shutdown/dispose has been called ");
         }
-        return ActorRefImpl.create(name, actorFactory, processMessagesOn, this, supervisor, parent, mailboxFactory);
+        return ActorRefImpl.create(name, actorFactory, processMessagesOn, this, supervisor, parent, mailboxFactory,
+                throughput, inlineDelivery, outbox, countQueued);
     }
 
     @SuppressWarnings("unchecked")
@@ -155,6 +170,51 @@ public final class Context {
         return root.stopFuture();
     }
 
+    /**
+     * Sends {@code message} to each of {@code actors} and collects their replies.
+     * All replies go to one reply endpoint (rather than a {@link CompletableFuture}
+     * per actor) which completes the returned future once every actor has replied.
+     * If the timeout elapses first the future completes with the replies received
+     * so far. Replies are accumulated one at a time so the collector need not be
+     * concurrent.
+     * 
+     * @param <T>       message type
+     * @param <S>       reply type
+     * @param <A>       collector container type
+     * @param <R>       result type
+     * @param actors    actors to ask
+     * @param message   message sent to every actor
+     * @param timeout   maximum time to wait for all replies
+     * @param unit      timeout unit
+     * @param collector collects the replies in arrival order
+     * @return future result of collecting the replies
+     */
+    public <T, S, A, R> CompletableFuture<R> askAll(Collection<? extends ActorRef<T>> actors, T message, long timeout,
+            TimeUnit unit, Collector<? super S, A, R> collector) {
+        Preconditions.checkArgumentNonNull(actors, "actors");
+        Preconditions.checkArgumentNonNull(unit, "unit");
+        Preconditions.checkArgumentNonNull(collector, "collector");
+        return ActorRefAggregator.askAll(actors, message, timeout, unit, collector);
+    }
+
+    /**
+     * Sends {@code message} to each of {@code actors} and returns their replies in
+     * arrival order. See
+     * {@link #askAll(Collection, Object, long, TimeUnit, Collector)}.
+     * 
+     * @param <T>     message type
+     * @param <S>     reply type
+     * @param actors  actors to ask
+     * @param message message sent to every actor
+     * @param timeout maximum time to wait for all replies
+     * @param unit    timeout unit
+     * @return future list of replies (fewer than the number of actors on timeout)
+     */
+    public <T, S> CompletableFuture<List<S>> askAll(Collection<? extends ActorRef<T>> actors, T message,
+            long timeout, TimeUnit unit) {
+        return askAll(actors, message, timeout, unit, Collectors.<S>toList());
+    }
+
     public Supervisor supervisor() {
         return supervisor;
     }
@@ -200,6 +260,15 @@ public final class Context {
         return this.<T>actorBuilder().actorFactory(factory);
     }
 
+    public <T> ActorBuilder<T> batch(int maxSize, Consumer<? super List<Message<T>>> consumer) {
+        return this.<T>actorBuilder().batch(maxSize, consumer);
+    }
+
+    public <T> ActorBuilder<T> async(int maxInFlight,
+            Function<? super Message<T>, ? extends CompletionStage<?>> function) {
+        return this.<T>actorBuilder().async(maxInFlight, function);
+    }
+
     public <T> ActorBuilder<T> actorClass(Class<? extends Actor<T>> actorClass, Object... args) {
         return this.<T>actorBuilder().actorClass(actorClass, args);
     }
@@ -228,4 +297,8 @@ public final class Context {
         return mailboxFactory;
     }
 
+    Throughput throughput() {
+        return throughput;
+    }
+
 }
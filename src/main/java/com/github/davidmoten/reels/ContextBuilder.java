@@ -1,9 +1,11 @@
 package com.github.davidmoten.reels;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import com.github.davidmoten.reels.internal.DeadLetterActor;
 import com.github.davidmoten.reels.internal.Preconditions;
+import com.github.davidmoten.reels.internal.Throughput;
 
 public final class ContextBuilder {
 
@@ -11,7 +13,8 @@ public final class ContextBuilder {
     private Supplier<? extends Actor<DeadLetter>> deadLetterActorFactory = () -> Context
             .createActorObject(DeadLetterActor.class);
     private Scheduler scheduler = Scheduler.defaultScheduler();
-    private MailboxFactory mailboxFactory = MailboxFactory.unbounded();
+    private MailboxFactory mailboxFactory = MailboxFactory.defaultMailboxFactory();
+    private Throughput throughput = Throughput.UNLIMITED;
 
     ContextBuilder() {
     }
@@ -38,8 +41,37 @@ public final class ContextBuilder {
         return this;
     }
 
+    /**
+     * Sets the default maximum number of messages an actor will process before
+     * yielding its thread to other actors (and resubmitting itself to its Worker).
+     * The default is unlimited (an actor processes its mailbox till empty).
+     * 
+     * @param maxMessages maximum number of messages processed per drain
+     * @return builder
+     */
+    public ContextBuilder throughput(int maxMessages) {
+        this.throughput = Throughput.create(maxMessages, 0, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Sets the default maximum number of messages and the time budget for an actor
+     * to process messages before yielding its thread to other actors (and
+     * resubmitting itself to its Worker).
+     * 
+     * @param maxMessages maximum number of messages processed per drain
+     * @param maxTime     maximum time spent processing messages per drain (0 for
+     *                    no time limit)
+     * @param unit        time unit of maxTime
+     * @return builder
+     */
+    public ContextBuilder throughput(int maxMessages, long maxTime, TimeUnit unit) {
+        this.throughput = Throughput.create(maxMessages, maxTime, unit);
+        return this;
+    }
+
     public Context build() {
-        return new Context(supervisor, deadLetterActorFactory, scheduler, mailboxFactory);
+        return new Context(supervisor, deadLetterActorFactory, scheduler, mailboxFactory, throughput);
     }
 
 }
@@ -20,6 +20,24 @@ public interface Mailbox<T> {
      */
     boolean offer(Message<T> message);
 
+    /**
+     * Adds the messages to the mailbox in iteration order. Implementations may
+     * enqueue the whole batch with a single atomic operation (in which case the
+     * messages become visible to the consumer together). The default
+     * implementation offers each message in turn. In general this method is
+     * thread-safe (can be called concurrently).
+     * 
+     * @param messages messages to add to the mailbox
+     * @return true if all messages were added to the mailbox
+     */
+    default boolean offerAll(Iterable<? extends Message<T>> messages) {
+        boolean accepted = true;
+        for (Message<T> message : messages) {
+            accepted &= offer(message);
+        }
+        return accepted;
+    }
+
     /**
      * Places the last message polled back on the queue so that the next poll will
      * return that message again. Should be called from the same thread as poll or
@@ -5,17 +5,64 @@ import java.util.Comparator;
 import com.github.davidmoten.reels.internal.Preconditions;
 import com.github.davidmoten.reels.internal.mailbox.MailboxBoundedFactory;
 import com.github.davidmoten.reels.internal.mailbox.MailboxPriority;
+import com.github.davidmoten.reels.internal.mailbox.MailboxUnboundedChunkedFactory;
 import com.github.davidmoten.reels.internal.mailbox.MailboxUnboundedFactory;
+import com.github.davidmoten.reels.internal.mailbox.MailboxUnboundedIntrusiveFactory;
+import com.github.davidmoten.reels.internal.queue.MpscLinkedArrayQueue;
 
 @FunctionalInterface
 public interface MailboxFactory {
 
     <T> Mailbox<T> create();
 
+    /**
+     * Returns the MailboxFactory used by a Context unless otherwise specified
+     * ({@link #unboundedIntrusive()}).
+     * 
+     * @return default mailbox factory
+     */
+    static MailboxFactory defaultMailboxFactory() {
+        return unboundedIntrusive();
+    }
+
     static MailboxFactory unbounded() {
         return MailboxUnboundedFactory.INSTANCE;
     }
 
+    /**
+     * Returns a factory for unbounded mailboxes that link messages together
+     * directly rather than wrapping each message in a queue node (one less
+     * allocation per message than {@link #unbounded()}).
+     * 
+     * @return unbounded intrusive mailbox factory
+     */
+    static MailboxFactory unboundedIntrusive() {
+        return MailboxUnboundedIntrusiveFactory.INSTANCE;
+    }
+
+    /**
+     * Returns a factory for unbounded mailboxes backed by a linked list of arrays
+     * (chunks) of size {@value MpscLinkedArrayQueue#DEFAULT_CHUNK_SIZE}. Suits
+     * actors that build up deep backlogs.
+     * 
+     * @return unbounded chunked mailbox factory
+     */
+    static MailboxFactory unboundedChunked() {
+        return unboundedChunked(MpscLinkedArrayQueue.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns a factory for unbounded mailboxes backed by a linked list of arrays
+     * (chunks) of the given size. Suits actors that build up deep backlogs.
+     * 
+     * @param chunkSize number of messages held by each chunk
+     * @return unbounded chunked mailbox factory
+     */
+    static MailboxFactory unboundedChunked(int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be > 0");
+        return new MailboxUnboundedChunkedFactory(chunkSize);
+    }
+
     static MailboxFactory bounded(int maxSize, boolean dropFirst) {
         Preconditions.checkArgument(maxSize > 0, "maxSize must be > 0");
         return new MailboxBoundedFactory(maxSize, dropFirst);
@@ -1,6 +1,14 @@
 package com.github.davidmoten.reels;
 
-public final class Message<T> {
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+
+import com.github.davidmoten.reels.internal.Blocking;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveNode;
+
+// extends MpscIntrusiveNode so that the default mailbox does not allocate a
+// queue node per message
+public final class Message<T> extends MpscIntrusiveNode {
 
     private final T content;
     private final ActorRef<?> sender;
@@ -50,6 +58,43 @@ public final class Message<T> {
         sender().tell(message, ActorRef.none());
     }
 
+    /**
+     * Runs blocking work (IO, waiting on a lock or future) from
+     * {@code onMessage} and returns its result. If the actor runs on a
+     * ForkJoinPool ({@link Scheduler#forkJoin()} for instance) the work is run
+     * with {@link java.util.concurrent.ForkJoinPool#managedBlock} so that the pool
+     * can add a thread while this one is blocked instead of losing a thread to
+     * the blocking work. The number and duration of blocking sections are
+     * recorded for the actor (see {@link ActorRef#blockingStats()}). A checked
+     * exception thrown by {@code callable} is rethrown wrapped in a
+     * RuntimeException.
+     * 
+     * @param <S>      result type
+     * @param callable blocking work
+     * @return result of callable
+     */
+    public <S> S blocking(Callable<? extends S> callable) {
+        return Blocking.call(recipient, callable);
+    }
+
+    /**
+     * Tells {@code target} the outcome of {@code stage} (wrapped in a
+     * {@link Status}) once it completes, with this actor as the sender. No thread
+     * waits on the stage so an actor calling an asynchronous client can do so from
+     * a non-blocking scheduler like {@link Scheduler#forkJoin()} instead of
+     * blocking an {@link Scheduler#io()} thread. The outcome is delivered to the
+     * mailbox like any other message so the target can safely change its state.
+     * Pass {@code self()} as the target to receive the outcome in this actor.
+     * 
+     * @param <S>    stage result type
+     * @param stage  asynchronous computation
+     * @param target receives the outcome
+     */
+    public <S> void pipeTo(CompletionStage<? extends S> stage, ActorRef<? super Status<S>> target) {
+        ActorRef<T> self = recipient;
+        stage.whenComplete((value, error) -> target.tell(Status.<S>from(value, error), self));
+    }
+
     public Context context() {
         return recipient.context();
     }
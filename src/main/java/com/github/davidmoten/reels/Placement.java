@@ -0,0 +1,32 @@
+package com.github.davidmoten.reels;
+
+/**
+ * Strategy used by a sticky computation scheduler (see
+ * {@link Scheduler#newComputationSticky(Placement, boolean)}) to choose the
+ * thread that an actor's work runs on.
+ */
+public enum Placement {
+
+    /**
+     * Chooses a thread at random (the default).
+     */
+    RANDOM,
+
+    /**
+     * Chooses threads in turn.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Chooses the thread with the fewest queued tasks.
+     */
+    LEAST_LOADED,
+
+    /**
+     * Chooses two threads at random and picks the one with fewer queued tasks.
+     * Almost as good at spreading load as {@link #LEAST_LOADED} without reading
+     * the counters of every thread.
+     */
+    POWER_OF_TWO_CHOICES;
+
+}
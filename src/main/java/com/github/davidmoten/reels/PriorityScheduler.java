@@ -0,0 +1,21 @@
+package com.github.davidmoten.reels;
+
+/**
+ * A pool of threads shared by actors of different priorities (see
+ * {@link Scheduler#newPriority(int, long, java.util.concurrent.TimeUnit)}).
+ * Tasks submitted directly to this scheduler (and its workers) have priority 0.
+ */
+public interface PriorityScheduler extends Scheduler {
+
+    /**
+     * Returns a Scheduler that runs tasks on this pool with the given priority
+     * (higher runs sooner). Shutting down the returned Scheduler shuts down this
+     * pool.
+     *
+     * @param priority priority of tasks submitted by the returned Scheduler (and
+     *                 its workers)
+     * @return scheduler using this pool with the given priority
+     */
+    Scheduler priority(int priority);
+
+}
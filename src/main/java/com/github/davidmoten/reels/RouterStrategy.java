@@ -0,0 +1,84 @@
+package com.github.davidmoten.reels;
+
+import java.util.function.Function;
+
+import com.github.davidmoten.reels.internal.Preconditions;
+
+/**
+ * How a router (see {@link ActorBuilder#router(RouterStrategy, int)}) chooses
+ * the routee for each message. The choice is made on the thread calling
+ * {@code tell}.
+ *
+ * @param <T> message type
+ */
+public final class RouterStrategy<T> {
+
+    public enum Type {
+        /**
+         * Routees in turn. Each processor has its own counter (stripe) so that
+         * concurrent callers don't contend on one counter, hence the sequence is only
+         * strictly round-robin for a single caller thread.
+         */
+        ROUND_ROBIN,
+        /**
+         * A routee chosen at random.
+         */
+        RANDOM,
+        /**
+         * The routee with the fewest messages waiting in its mailbox or being
+         * processed (ties broken randomly).
+         */
+        SMALLEST_MAILBOX,
+        /**
+         * The routee chosen by hashing a key of the message (jump consistent hash) so
+         * that messages with the same key always go to the same routee.
+         */
+        CONSISTENT_HASH;
+    }
+
+    private final Type type;
+    private final Function<? super T, ?> key; // nullable
+
+    private RouterStrategy(Type type, Function<? super T, ?> key) {
+        this.type = type;
+        this.key = key;
+    }
+
+    public static <T> RouterStrategy<T> roundRobin() {
+        return new RouterStrategy<T>(Type.ROUND_ROBIN, null);
+    }
+
+    public static <T> RouterStrategy<T> random() {
+        return new RouterStrategy<T>(Type.RANDOM, null);
+    }
+
+    public static <T> RouterStrategy<T> smallestMailbox() {
+        return new RouterStrategy<T>(Type.SMALLEST_MAILBOX, null);
+    }
+
+    /**
+     * Returns a strategy that routes messages with equal keys to the same routee.
+     * 
+     * @param <T> message type
+     * @param key extracts the key from a message (a null key is allowed)
+     * @return consistent hash strategy
+     */
+    public static <T> RouterStrategy<T> consistentHash(Function<? super T, ?> key) {
+        Preconditions.checkArgumentNonNull(key, "key");
+        return new RouterStrategy<T>(Type.CONSISTENT_HASH, key);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Returns the key function for a {@link Type#CONSISTENT_HASH} strategy,
+     * otherwise null.
+     * 
+     * @return key function (nullable)
+     */
+    public Function<? super T, ?> key() {
+        return key;
+    }
+}
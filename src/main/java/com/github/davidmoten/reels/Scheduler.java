@@ -1,15 +1,23 @@
 package com.github.davidmoten.reels;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.github.davidmoten.reels.internal.Constants;
+import com.github.davidmoten.reels.internal.scheduler.DefaultScheduler;
+import com.github.davidmoten.reels.internal.scheduler.PrefixedForkJoinWorkerThreadFactory;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerComputationStealing;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerComputationSticky;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerDoNothing;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerEventLoop;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerForkJoinPool;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerFromExecutor;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerImmediate;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerIo;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerIoBounded;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerPriority;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerVirtual;
 import com.github.davidmoten.reels.internal.scheduler.TestScheduler;
 
 public interface Scheduler extends CanSchedule {
@@ -31,8 +39,14 @@ public interface Scheduler extends CanSchedule {
      * protection.
      * 
      * @return true true iff requires synchronization
+     * @deprecated ignored. An actor's drain is always serialized by its
+     *             work-in-progress counter whatever the Scheduler so there is no
+     *             need to implement this method.
      */
-    boolean requiresDrainSynchronization();
+    @Deprecated
+    default boolean requiresDrainSynchronization() {
+        return true;
+    }
 
     /**
      * Shuts this scheduler down so that subsequent tasks submitted to it will be
@@ -40,8 +54,20 @@ public interface Scheduler extends CanSchedule {
      */
     void shutdown();
 
+    /**
+     * Returns the scheduler used by a {@link Context} when none is specified. This
+     * is {@link #forkJoin()} unless the system property
+     * {@code reels.scheduler.default} is set to one of {@code computationSticky},
+     * {@code computationStealing}, {@code io}, {@code virtual} or {@code single}.
+     * Setting {@code reels.forkjoin.parallelism} or {@code reels.forkjoin.async}
+     * makes the default a dedicated ForkJoinPool (see
+     * {@link #forkJoin(int, boolean, ForkJoinWorkerThreadFactory)}) instead of the
+     * common pool.
+     * 
+     * @return default scheduler
+     */
     static Scheduler defaultScheduler() {
-        return forkJoin();
+        return DefaultScheduler.INSTANCE;
     }
 
     /**
@@ -53,6 +79,33 @@ public interface Scheduler extends CanSchedule {
         return SchedulerForkJoinPool.INSTANCE;
     }
 
+    /**
+     * Creates a new work-stealing Scheduler backed by its own ForkJoinPool rather
+     * than the common pool (which is shared with parallel streams and
+     * CompletableFuture callbacks). Call {@link #shutdown()} when finished with it.
+     * 
+     * @param parallelism   number of threads in the pool
+     * @param asyncMode     if true the pool processes tasks that are never joined
+     *                      (like actor drains) in FIFO order (recommended)
+     * @param threadFactory creates the threads of the pool
+     * @return new ForkJoinPool scheduler
+     */
+    static Scheduler forkJoin(int parallelism, boolean asyncMode, ForkJoinWorkerThreadFactory threadFactory) {
+        return new SchedulerForkJoinPool(parallelism, asyncMode, threadFactory);
+    }
+
+    /**
+     * Creates a new work-stealing Scheduler backed by its own async mode
+     * ForkJoinPool with daemon threads (see
+     * {@link #forkJoin(int, boolean, ForkJoinWorkerThreadFactory)}).
+     * 
+     * @param parallelism number of threads in the pool
+     * @return new ForkJoinPool scheduler
+     */
+    static Scheduler forkJoin(int parallelism) {
+        return forkJoin(parallelism, true, new PrefixedForkJoinWorkerThreadFactory("ReelsForkJoin"));
+    }
+
     /**
      * Assigns tasks to a pool of threads whose size is the number of processors.
      * 
@@ -71,6 +124,13 @@ public interface Scheduler extends CanSchedule {
      * {@code computation()} scheduler outperforms this one but there may be use
      * cases where it has an advantage.
      * 
+     * <p>
+     * Threads are chosen at random unless the system property
+     * {@code reels.computation.sticky.placement} is set to the name of another
+     * {@link Placement} (case is ignored, an unknown name means random). Rebalancing is enabled by setting
+     * {@code reels.computation.sticky.rebalance} to true (see
+     * {@link #newComputationSticky(Placement, boolean)}).
+     * 
      * @return computation scheduler of which a created worker always uses the same
      *         thread
      */
@@ -79,6 +139,79 @@ public interface Scheduler extends CanSchedule {
         return SchedulerComputationSticky.INSTANCE;
     }
 
+    /**
+     * Creates a new sticky computation scheduler (see {@link #computationSticky()})
+     * with its own pool of threads (the number of processors unless the system
+     * property {@code reels.computation.pool.size} is set). Call
+     * {@link #shutdown()} when finished with it.
+     * 
+     * @param placement how a worker's thread is chosen from the pool
+     * @param rebalance if true then each time an actor goes from idle to busy it
+     *                  may move to another thread (chosen by {@code placement})
+     *                  that has fewer queued tasks than its current thread
+     * @return new sticky computation scheduler
+     */
+    static Scheduler newComputationSticky(Placement placement, boolean rebalance) {
+        return new SchedulerComputationSticky(placement, rebalance);
+    }
+
+    /**
+     * Returns a computation scheduler where each thread has its own run queue and
+     * an actor is processed on one thread until that thread falls behind. A thread
+     * with nothing to do steals a waiting actor (with all of its queued messages)
+     * from another thread and the actor stays on the new thread from then on. The
+     * pool size is the number of processors unless the system property
+     * {@code reels.computation.pool.size} is set.
+     *
+     * @return work-stealing computation scheduler
+     */
+    static Scheduler computationStealing() {
+        return SchedulerComputationStealing.INSTANCE;
+    }
+
+    /**
+     * Creates a new work-stealing computation scheduler (see
+     * {@link #computationStealing()}) with its own pool of threads. Call
+     * {@link #shutdown()} when finished with it.
+     *
+     * @param size number of threads
+     * @return new work-stealing computation scheduler
+     */
+    static Scheduler newComputationStealing(int size) {
+        return new SchedulerComputationStealing(size);
+    }
+
+    /**
+     * Creates a new pool of threads shared by actors of different priorities.
+     * Actors get a priority by using the Scheduler returned by
+     * {@link PriorityScheduler#priority(int)} (the pool itself has priority 0).
+     * When a thread is free it runs the waiting actor with the earliest deadline,
+     * where the deadline of an actor that became ready at time t is t less its
+     * priority multiplied by {@code aging}. Higher priority actors overtake
+     * waiting lower priority ones but a waiting actor can only be overtaken for
+     * {@code aging} per level of priority difference so none starve. Call
+     * {@link #shutdown()} when finished with it.
+     * 
+     * @param size  number of threads
+     * @param aging how much sooner each level of priority is run
+     * @param unit  time unit of aging
+     * @return new priority scheduler
+     */
+    static PriorityScheduler newPriority(int size, long aging, TimeUnit unit) {
+        return new SchedulerPriority(size, aging, unit);
+    }
+
+    /**
+     * Creates a new priority scheduler (see
+     * {@link #newPriority(int, long, TimeUnit)}) with a thread per processor where
+     * each level of priority is run 1ms sooner.
+     * 
+     * @return new priority scheduler
+     */
+    static PriorityScheduler newPriority() {
+        return newPriority(Runtime.getRuntime().availableProcessors(), 1, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Use this scheduler for actors that perform blocking operations (like network
      * calls, database access, file system access).
@@ -89,6 +222,34 @@ public interface Scheduler extends CanSchedule {
         return SchedulerIo.INSTANCE;
     }
 
+    /**
+     * Creates a new scheduler for actors that perform blocking operations that
+     * never uses more than {@code maxThreads} threads (unlike {@link #io()} which
+     * uses a thread per actor). When all threads are busy actors wait in a FIFO
+     * queue for a thread. Idle threads are disposed of after 60s (or the value of
+     * the system property {@code reels.io.keep.alive.time.seconds}). Call
+     * {@link #shutdown()} when finished with it.
+     * 
+     * @param maxThreads maximum number of threads
+     * @return new bounded io scheduler
+     */
+    static Scheduler io(int maxThreads) {
+        return new SchedulerIoBounded(maxThreads);
+    }
+
+    /**
+     * Use this scheduler for actors that perform blocking operations when there
+     * are many of them. On Java 21+ each drain of an actor runs on a new virtual
+     * thread so ten thousand actors blocked in {@code onMessage} do not need ten
+     * thousand platform threads. On earlier Java versions a cached pool of platform
+     * threads is used.
+     * 
+     * @return virtual thread scheduler
+     */
+    static Scheduler virtual() {
+        return SchedulerVirtual.INSTANCE;
+    }
+
     /**
      * Runs all tasks on the current thread. Don't mix use of this scheduler with
      * other schedulers because message ordering will not be honoured (an immediate
@@ -103,7 +264,8 @@ public interface Scheduler extends CanSchedule {
     }
 
     /**
-     * Runs all tasks on a singleton thread.
+     * Runs all tasks on a singleton thread (an event loop with a lock-free run
+     * queue).
      * 
      * @return single scheduler
      */
@@ -112,13 +274,13 @@ public interface Scheduler extends CanSchedule {
     }
 
     /**
-     * Runs all tasks on a newly created single thread.
+     * Runs all tasks on a newly created single thread (an event loop with a
+     * lock-free run queue).
      * 
      * @return new thread single scheduler
      */
     static Scheduler newSingle() {
-        return fromExecutor(Executors.newSingleThreadScheduledExecutor(Constants.NEW_SINGLE_THREAD_FACTORY),
-                false);
+        return new SchedulerEventLoop(Constants.NEW_SINGLE_THREAD_FACTORY);
     }
 
     static Scheduler fromExecutor(ScheduledExecutorService executor) {
@@ -0,0 +1,71 @@
+package com.github.davidmoten.reels;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * The outcome of an asynchronous computation, either a value or an error, as
+ * delivered to an actor by {@link Message#pipeTo}.
+ *
+ * @param <T> value type
+ */
+public final class Status<T> {
+
+    private final T value;
+    private final Throwable error;
+
+    private Status(T value, Throwable error) {
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> Status<T> success(T value) {
+        return new Status<T>(value, null);
+    }
+
+    public static <T> Status<T> failure(Throwable error) {
+        return new Status<T>(null, error);
+    }
+
+    // from the arguments to a CompletionStage.whenComplete callback
+    static <T> Status<T> from(T value, Throwable error) {
+        if (error == null) {
+            return success(value);
+        } else if (error instanceof CompletionException && error.getCause() != null) {
+            // dependent stages wrap the original error
+            return failure(error.getCause());
+        } else {
+            return failure(error);
+        }
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public boolean isFailure() {
+        return error != null;
+    }
+
+    /**
+     * Returns the value if successful otherwise null.
+     * 
+     * @return value (may be null)
+     */
+    public T value() {
+        return value;
+    }
+
+    /**
+     * Returns the error if failed otherwise null.
+     * 
+     * @return error (may be null)
+     */
+    public Throwable error() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "Status[success=" + value + "]" : "Status[failure=" + error + "]";
+    }
+}
@@ -2,4 +2,16 @@ package com.github.davidmoten.reels;
 
 public interface Worker extends CanSchedule, Disposable {
 
+    /**
+     * Returns true if and only if this worker runs all of its tasks on one thread
+     * and that thread is the current thread. Used to run an idle actor's drain
+     * inline (see {@link ActorBuilder#inlineDelivery()}). The default returns
+     * false.
+     * 
+     * @return true if tasks of this worker run on the current thread
+     */
+    default boolean runsOnCurrentThread() {
+        return false;
+    }
+
 }
@@ -0,0 +1,104 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+
+/**
+ * An ActorRef that receives replies to an ask and is also the future returned
+ * to the caller. The future can be given a timeout, on which {@link #run()} is
+ * called.
+ *
+ * @param <T> reply type
+ * @param <R> future result type
+ */
+abstract class AbstractReplyActorRef<T, R> extends CompletableFuture<R> implements ActorRef<T>, Runnable {
+
+    // nullable, set if the ask has a timeout
+    private volatile Disposable timeout;
+
+    /**
+     * Calls {@link #run()} if this future has not completed within the timeout.
+     * 
+     * @param timeout maximum time to wait
+     * @param unit    timeout unit
+     */
+    final void timeout(long timeout, TimeUnit unit) {
+        this.timeout = AskTimer.schedule(this, timeout, unit);
+    }
+
+    final void disposeTimeout() {
+        Disposable d = timeout;
+        if (d != null) {
+            d.dispose();
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        disposeTimeout();
+        return cancelled;
+    }
+
+    @Override
+    public void tell(T message) {
+        tell(message, ActorRef.none());
+    }
+
+    @Override
+    public <S> CompletableFuture<S> ask(T message) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <S> CompletableFuture<S> ask(T message, long timeout, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void stop() {
+        // do nothing
+    }
+
+    @Override
+    public Context context() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Scheduler scheduler() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <S> ActorRef<S> parent() {
+        return ActorRef.none();
+    }
+
+    @Override
+    public <S> ActorRef<S> child(String name) {
+        return null;
+    }
+
+    @Override
+    public <S> Collection<ActorRef<S>> children() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void stopNow() {
+    }
+
+    @Override
+    public boolean isStopped() {
+        return false;
+    }
+
+}
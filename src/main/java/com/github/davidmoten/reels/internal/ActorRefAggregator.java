@@ -0,0 +1,119 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import com.github.davidmoten.reels.ActorRef;
+
+/**
+ * The single reply endpoint of a scatter-gather ask. Replies from all the asked
+ * actors are collected into one container and the future completes when the
+ * expected number of replies have arrived or, with the replies received so far,
+ * when the timeout elapses. Replies that arrive after completion are ignored.
+ *
+ * @param <T> reply type
+ * @param <A> collector container type
+ * @param <R> result type
+ */
+public final class ActorRefAggregator<T, A, R> extends AbstractReplyActorRef<T, R> {
+
+    private final BiConsumer<A, ? super T> accumulator;
+    private final Function<A, R> finisher;
+
+    // guarded by this
+    private final A container;
+    private int remaining;
+    private boolean done;
+
+    ActorRefAggregator(int expected, Collector<? super T, A, R> collector) {
+        this.accumulator = collector.accumulator();
+        this.finisher = collector.finisher();
+        this.container = collector.supplier().get();
+        this.remaining = expected;
+    }
+
+    /**
+     * Sends {@code message} to each actor with a new aggregator as the sender and
+     * returns the aggregator.
+     * 
+     * @param <S>       message type
+     * @param <T>       reply type
+     * @param <A>       collector container type
+     * @param <R>       result type
+     * @param actors    actors to ask
+     * @param message   message to send to each actor
+     * @param timeout   maximum time to wait for all replies
+     * @param unit      timeout unit
+     * @param collector collects the replies
+     * @return aggregator that completes with the collected replies
+     */
+    public static <S, T, A, R> ActorRefAggregator<T, A, R> askAll(
+            Collection<? extends ActorRef<S>> actors, S message, long timeout, TimeUnit unit, Collector<? super T, A, R> collector) {
+        ActorRefAggregator<T, A, R> aggregator = new ActorRefAggregator<>(actors.size(), collector);
+        if (actors.isEmpty()) {
+            aggregator.finish();
+            return aggregator;
+        }
+        // start the timer before sending so fast replies can cancel it
+        aggregator.timeout(timeout, unit);
+        for (ActorRef<S> actor : actors) {
+            actor.tell(message, aggregator);
+        }
+        return aggregator;
+    }
+
+    @Override
+    public void tell(T message, ActorRef<?> sender) {
+        synchronized (this) {
+            // a surplus reply (an actor replying twice) is ignored
+            if (done || remaining == 0) {
+                return;
+            }
+            try {
+                accumulator.accept(container, message);
+            } catch (Throwable e) {
+                done = true;
+                disposeTimeout();
+                completeExceptionally(e);
+                return;
+            }
+            if (--remaining > 0) {
+                return;
+            }
+        }
+        disposeTimeout();
+        finish();
+    }
+
+    // called by the timer when the timeout has elapsed
+    @Override
+    public void run() {
+        finish();
+    }
+
+    private void finish() {
+        R result;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            try {
+                result = finisher.apply(container);
+            } catch (Throwable e) {
+                completeExceptionally(e);
+                return;
+            }
+        }
+        complete(result);
+    }
+
+    @Override
+    public String name() {
+        return "reels-actor-ref-aggregator";
+    }
+
+}
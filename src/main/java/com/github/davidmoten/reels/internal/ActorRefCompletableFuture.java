@@ -1,38 +1,26 @@
 package com.github.davidmoten.reels.internal;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 import com.github.davidmoten.reels.ActorRef;
-import com.github.davidmoten.reels.Context;
-import com.github.davidmoten.reels.Scheduler;
 
-public final class ActorRefCompletableFuture<T> extends CompletableFuture<T> implements ActorRef<T> {
-    
-    @Override
-    public void tell(T message) {
-        tell(message, ActorRef.none());
-    }
-
-    @Override
-    public void tell(T message, ActorRef<?> sender) {
-        this.complete(message);
-    }
-
-    @Override
-    public <S> CompletableFuture<S> ask(T message) {
-        throw new UnsupportedOperationException();
-    }
+/**
+ * The reply endpoint of an ask and the future returned to the caller, so an
+ * ask allocates one object (plus a timer entry if it has a timeout).
+ */
+public final class ActorRefCompletableFuture<T> extends AbstractReplyActorRef<T, T> {
 
+    // called by the timer when the timeout has elapsed
     @Override
-    public void stop() {
-        // do nothing
+    public void run() {
+        completeExceptionally(new TimeoutException("no reply to ask within timeout"));
     }
 
     @Override
-    public Context context() {
-        throw new UnsupportedOperationException();
+    public void tell(T message, ActorRef<?> sender) {
+        if (this.complete(message)) {
+            disposeTimeout();
+        }
     }
 
     @Override
@@ -40,33 +28,4 @@ public final class ActorRefCompletableFuture<T> extends CompletableFuture<T> imp
         return "reels-actor-ref-completable-future";    
     }
 
-    @Override
-    public Scheduler scheduler() {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public <S> ActorRef<S> parent() {
-        return ActorRef.none();
-    }
-
-    @Override
-    public <S> ActorRef<S> child(String name) {
-        return null;
-    }
-
-    @Override
-    public <S> Collection<ActorRef<S>> children() {
-        return Collections.emptyList();
-    }
-
-    @Override
-    public void stopNow() {
-    }
-
-    @Override
-    public boolean isStopped() {
-        return false;
-    }
-
 }
@@ -3,9 +3,13 @@ package com.github.davidmoten.reels.internal;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -16,6 +20,9 @@ import org.slf4j.LoggerFactory;
 
 import com.github.davidmoten.reels.Actor;
 import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.AsyncActor;
+import com.github.davidmoten.reels.BatchActor;
+import com.github.davidmoten.reels.BlockingStats;
 import com.github.davidmoten.reels.Context;
 import com.github.davidmoten.reels.CreateException;
 import com.github.davidmoten.reels.DeadLetter;
@@ -29,8 +36,11 @@ import com.github.davidmoten.reels.Scheduler;
 import com.github.davidmoten.reels.SupervisedActorRef;
 import com.github.davidmoten.reels.Supervisor;
 import com.github.davidmoten.reels.Worker;
+import com.github.davidmoten.reels.internal.mailbox.MailboxBounded;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveLinkedQueue;
+import com.github.davidmoten.reels.internal.scheduler.ImmediateWorker;
 
-public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable {
+public class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable {
 
     public static final boolean debug = false;
     private static final Logger log = LoggerFactory.getLogger(ActorRefImpl.class);
@@ -38,16 +48,59 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
     private final String name;
     private final Supplier<? extends Actor<T>> factory; // used to recreate actor
     private transient final Mailbox<T> mailbox; // mailbox
+    // system messages (PoisonPill from stopNow, Terminated), polled before the
+    // mailbox so that they take effect regardless of the user message backlog
+    private final MpscIntrusiveLinkedQueue<Message<T>> control = new MpscIntrusiveLinkedQueue<>();
     private final Context context;
     private final Supervisor supervisor;
     private final Scheduler scheduler;
     private final Worker worker;
     private final ActorRef<?> parent; // nullable
+    private final Throughput throughput;
+    private final boolean inlineDelivery;
+    private final Outbox outbox; // nullable
+    // nullable, approximate number of user messages waiting in the mailbox or
+    // being processed (only counted for routees of a smallest mailbox router). A
+    // message is counted when the mailbox accepts it and uncounted when it is
+    // dropped by the mailbox, discarded or finished with (delivered, sent to dead
+    // letters, or for an AsyncActor when its stage completes)
+    private final AtomicInteger queued;
     private final Map<String, ActorRef<?>> children; // concurrent
     private Actor<T> actor; // mutable because recreated if restart called
+    private BatchActor<T> batchActor; // non-null if actor is a BatchActor
+    private List<Message<T>> batch; // non-null while a batch is being processed
+    private AsyncActor<T> asyncActor; // non-null if actor is an AsyncActor
+    private int asyncMaxInFlight;
+    // stages returned by the AsyncActor that have not completed (or whose
+    // completion has not yet been processed by the drain), only accessed by the
+    // drain
+    private int asyncInFlight;
+    private Message<T> asyncFailed; // non-null while an async failure is supervised
+    private Deque<Message<T>> pending; // lazily created, polled before the mailbox
+    // the latest user message if it was polled from pending (null if it came from
+    // the mailbox) so that retry() re-queues it where it came from
+    private Message<T> latestFromPending;
+    private boolean latestFromControl; // true if the latest polled message was a control message
     private boolean preStartHasBeenRun;
     protected final AtomicInteger state = new AtomicInteger(); // ACTIVE
     private boolean systemMessagesOnly;
+    private volatile BlockingCounter blocking; // lazily created
+
+    // drain scheduling state machine: 0 = idle, otherwise the drain is scheduled
+    // or running and the value is the number of drain requests not yet seen by
+    // the drain loop. Only the idle to scheduled transition submits a task to
+    // the worker.
+    private final AtomicInteger wip = new AtomicInteger();
+
+    // bounds the nesting of drains run inline on a thread (an inline drain that
+    // tells another inline actor on the same thread runs that actor's drain
+    // inline too)
+    private static final int MAX_INLINE_DEPTH = Integer.getInteger("reels.inline.max.depth", 16);
+    private static final ThreadLocal<int[]> INLINE_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    // the outbox of the actor whose drain is running on this thread (if that
+    // actor has an outbox)
+    private static final ThreadLocal<Outbox> OUTBOX = new ThreadLocal<>();
 
     private static final int ACTIVE = 0;
     private static final int STOPPING = 1;
@@ -57,13 +110,10 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
     private static final int PAUSED = 5;
 
     public static <T> ActorRefImpl<T> create(String name, Supplier<? extends Actor<T>> factory, Scheduler scheduler,
-            Context context, Supervisor supervisor, ActorRef<?> parent, MailboxFactory mailboxFactory) {
-        final ActorRefImpl<T> a;
-        if (scheduler.requiresDrainSynchronization()) {
-            a = new ActorRefSynchronizedDrain<T>(name, factory, scheduler, context, supervisor, parent, mailboxFactory);
-        } else {
-            a = new ActorRefUnsynchronizedDrain<T>(name, factory, scheduler, context, supervisor, parent, mailboxFactory);
-        }
+            Context context, Supervisor supervisor, ActorRef<?> parent, MailboxFactory mailboxFactory,
+            Throughput throughput, boolean inlineDelivery, boolean outbox, boolean countQueued) {
+        final ActorRefImpl<T> a = new ActorRefImpl<T>(name, factory, scheduler, context, supervisor, parent,
+                mailboxFactory, throughput, inlineDelivery, outbox, countQueued);
         if (parent != null) {
             ((ActorRefImpl<?>) parent).addChild(a);
         }
@@ -71,7 +121,8 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
     }
 
     protected ActorRefImpl(String name, Supplier<? extends Actor<T>> factory, Scheduler scheduler, Context context,
-            Supervisor supervisor, ActorRef<?> parent, MailboxFactory mailboxFactory) {
+            Supervisor supervisor, ActorRef<?> parent, MailboxFactory mailboxFactory, Throughput throughput,
+            boolean inlineDelivery, boolean outbox, boolean countQueued) {
         this.name = name;
         this.factory = factory;
         this.context = context;
@@ -80,6 +131,16 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
         this.worker = scheduler.createWorker();
         this.parent = parent;
         this.scheduler = scheduler;
+        // an immediate worker runs a resubmitted drain synchronously so yielding at
+        // the limit would only nest another drain on the stack (one frame per
+        // limit reached, ending in StackOverflowError for a deep mailbox)
+        this.throughput = worker instanceof ImmediateWorker ? Throughput.UNLIMITED : throughput;
+        this.inlineDelivery = inlineDelivery;
+        this.outbox = outbox ? new Outbox() : null;
+        this.queued = countQueued ? new AtomicInteger() : null;
+        if (countQueued && mailbox instanceof MailboxBounded) {
+            ((MailboxBounded<T>) mailbox).onDrop(queued::decrementAndGet);
+        }
         this.children = new ConcurrentHashMap<>();
         createActor();
     }
@@ -108,8 +169,9 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
         stack.offer(this);
         ActorRef<?> a;
         while ((a = stack.poll()) != null) {
-            ((ActorRefImpl<?>) a).stopNowThis();
-            stack.addAll(children.values());
+            ActorRefImpl<?> x = (ActorRefImpl<?>) a;
+            x.stopNowThis();
+            stack.addAll(x.children.values());
         }
     }
 
@@ -123,7 +185,7 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
                 if (debug) {
                     log("removing from parent and calling stop");
                 }
-                stop();
+                tellControl(PoisonPill.instance(), parent);
                 break;
             }
         }
@@ -153,12 +215,130 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
 
     @Override
     public void tell(T message, ActorRef<?> sender) {
-        mailbox.offer(new Message<T>(message, this, sender));
+        offer(new Message<T>(message, this, sender));
+        Outbox o = OUTBOX.get();
+        if (o != null) {
+            o.add(this);
+        } else if (inlineDelivery) {
+            scheduleDrainInline();
+        } else {
+            scheduleDrain();
+        }
+    }
+
+    @Override
+    public void tellAll(Iterable<? extends T> messages, ActorRef<?> sender) {
+        List<Message<T>> list;
+        if (messages instanceof Collection) {
+            list = new ArrayList<Message<T>>(((Collection<?>) messages).size());
+        } else {
+            list = new ArrayList<Message<T>>();
+        }
+        for (T message : messages) {
+            list.add(new Message<T>(message, this, sender));
+        }
+        if (!list.isEmpty()) {
+            if (queued == null) {
+                mailbox.offerAll(list);
+            } else {
+                // one at a time so that only the accepted messages are counted
+                for (Message<T> m : list) {
+                    offer(m);
+                }
+            }
+            Outbox o = OUTBOX.get();
+            if (o != null) {
+                o.add(this);
+            } else if (inlineDelivery) {
+                scheduleDrainInline();
+            } else {
+                scheduleDrain();
+            }
+        }
+    }
+
+    private void offer(Message<T> message) {
+        AtomicInteger q = queued;
+        if (q == null) {
+            mailbox.offer(message);
+        } else {
+            // counted before the offer so that the drain never sees the message
+            // uncounted
+            q.incrementAndGet();
+            if (!mailbox.offer(message)) {
+                q.decrementAndGet();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void tellControl(Object content, ActorRef<?> sender) {
+        control.offer(new Message<T>((T) content, this, sender));
         scheduleDrain();
     }
 
-    private void scheduleDrain() {
-        worker.schedule(this);
+    void scheduleDrain() {
+        if (wip.getAndIncrement() == 0) {
+            worker.schedule(this);
+        }
+    }
+
+    /**
+     * Runs the drain on the current thread if this actor was idle, its worker
+     * runs on the current thread and the inline nesting limit has not been
+     * reached, otherwise schedules the drain as usual. Ordering is preserved
+     * because the drain is only run inline when no other drain is scheduled or
+     * running and all drains of the worker run on this thread anyway.
+     */
+    private void scheduleDrainInline() {
+        if (wip.getAndIncrement() == 0) {
+            int[] depth;
+            if (!worker.isDisposed() && worker.runsOnCurrentThread()
+                    && (depth = INLINE_DEPTH.get())[0] < MAX_INLINE_DEPTH) {
+                depth[0]++;
+                try {
+                    run();
+                } finally {
+                    depth[0]--;
+                }
+            } else {
+                worker.schedule(this);
+            }
+        }
+    }
+
+    @Override
+    public final void run() {
+        int missed = 1;
+        while (true) {
+            if (!drainAndFlushOutbox()) {
+                // throughput limit reached, give other actors on this thread a turn
+                // (we still own the drain so wip is left as is)
+                worker.schedule(this);
+                return;
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private boolean drainAndFlushOutbox() {
+        Outbox o = outbox;
+        if (o == null) {
+            return drain();
+        }
+        // tells made while draining only enqueue and record the recipient,
+        // recipients are scheduled once each when the drain ends
+        Outbox previous = OUTBOX.get();
+        OUTBOX.set(o);
+        try {
+            return drain();
+        } finally {
+            OUTBOX.set(previous);
+            o.flush();
+        }
     }
 
     private void handleTerminationMessage(Message<T> message) {
@@ -189,9 +369,9 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
             ActorRef<?> p = parent;
             if (p == null) {
                 // is root actor (which is the only actor without a parent)
-                mailbox.offer(new Message<T>((T) Terminated.INSTANCE, this, this));
+                control.offer(new Message<T>((T) Terminated.INSTANCE, this, this));
             } else {
-                p.<Object>recast().tell(Terminated.INSTANCE, this);
+                ((ActorRefImpl<?>) p).tellControl(Terminated.INSTANCE, this);
             }
         }
     }
@@ -211,7 +391,7 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
             int s = state.get();
             if (s == ACTIVE || s == PAUSED) {
                 if (state.compareAndSet(s, RESTART)) {
-                    run();
+                    scheduleDrain();
                     return true;
                 }
             } else {
@@ -240,11 +420,15 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
         }
     }
 
+    @SuppressWarnings("unchecked")
     private Actor<T> createActor() {
         actor = factory.get();
         if (actor == null) {
             throw new CreateException("actor factory cannot return null");
         }
+        batchActor = actor instanceof BatchActor ? (BatchActor<T>) actor : null;
+        asyncActor = actor instanceof AsyncActor ? (AsyncActor<T>) actor : null;
+        asyncMaxInFlight = asyncActor == null ? 0 : Math.max(1, asyncActor.maxInFlight());
         preStartHasBeenRun = false;
         return actor;
     }
@@ -272,6 +456,16 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
         return actor;
     }
 
+    @Override
+    public <S> CompletableFuture<S> ask(T message, long timeout, TimeUnit unit) {
+        Preconditions.checkArgumentNonNull(unit, "unit");
+        ActorRefCompletableFuture<S> actor = new ActorRefCompletableFuture<>();
+        // start the timer before sending so a fast reply can cancel it
+        actor.timeout(timeout, unit);
+        tell(message, actor);
+        return actor;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <S> ActorRef<S> parent() {
@@ -300,17 +494,97 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
 
     @Override
     public void retry() {
-        mailbox.retryLatest();
+        List<Message<T>> b = batch;
+        if (b != null) {
+            // retry the whole batch ahead of anything already pending
+            Deque<Message<T>> p = pending();
+            for (int i = b.size() - 1; i >= 0; i--) {
+                p.addFirst(b.get(i));
+            }
+            addQueued(b.size());
+        } else if (asyncFailed != null) {
+            // the failed message is no longer the latest polled from the mailbox
+            pending().addFirst(asyncFailed);
+            addQueued(1);
+        } else if (latestFromPending != null) {
+            pending().addFirst(latestFromPending);
+            addQueued(1);
+        } else {
+            mailbox.retryLatest();
+            addQueued(1);
+        }
+    }
+
+    // retried messages are waiting again (as well as being counted down once the
+    // failed attempt is finished with)
+    private void addQueued(int n) {
+        AtomicInteger q = queued;
+        if (q != null) {
+            q.addAndGet(n);
+        }
     }
 
+    private Deque<Message<T>> pending() {
+        if (pending == null) {
+            pending = new ArrayDeque<>();
+        }
+        return pending;
+    }
+
+    private Message<T> poll() {
+        Message<T> m = control.poll();
+        latestFromControl = m != null;
+        if (m != null) {
+            return m;
+        } else if (asyncInFlight >= asyncMaxInFlight && asyncActor != null) {
+            // suspended until a stage completes (its completion is a control
+            // message that reschedules the drain)
+            return null;
+        } else {
+            return pollUser();
+        }
+    }
+
+    private Message<T> pollUser() {
+        Deque<Message<T>> p = pending;
+        if (p != null && !p.isEmpty()) {
+            return latestFromPending = p.poll();
+        } else {
+            latestFromPending = null;
+            return mailbox.poll();
+        }
+    }
+
+    /**
+     * Processes messages from the mailbox until it is empty, the actor is paused
+     * or the throughput limit is reached.
+     * 
+     * @return false if and only if the throughput limit was reached
+     */
     @SuppressWarnings("unchecked")
-    protected void drain() {
+    private boolean drain() {
+        final int maxMessages = throughput.maxMessages();
+        final long maxTimeNanos = throughput.maxTimeNanos();
+        final long startTime = maxTimeNanos == 0 ? 0 : System.nanoTime();
+        int count = 0;
         Message<T> message;
         int s;
-        while ((s = state.get()) != PAUSED && (message = (Message<T>) mailbox.poll()) != null) {
+        while ((s = state.get()) != PAUSED) {
+            if (systemMessagesOnly) {
+                // stopping now so discard the user message backlog in bulk
+                // (rather than one message at a time through the loop below)
+                discardUserMessages();
+            }
+            if ((message = poll()) == null) {
+                break;
+            }
             if (debug) {
                 log("message polled=" + message.content() + " from " + message.sender() + ", state=" + s);
             }
+            if (message.content() instanceof AsyncCompletion) {
+                handleAsyncCompletion((AsyncCompletion) message.content(), s);
+                continue;
+            }
             if (s == RESTART) {
                 actor.onStop(this);
                 createActor();
@@ -323,6 +597,8 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
             if (s == STOPPING_NOW) {
                 systemMessagesOnly = true;
             }
+            // the number of counted user messages finished with in this iteration
+            int finished = 1;
             if (s == STOPPING) {
                 if (message.content() == Terminated.INSTANCE) {
                     handleTerminationMessage(message);
@@ -352,21 +628,142 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
                     }
                 }
             } else if (message.content() == Terminated.INSTANCE) {
-                handleTerminationMessage(message);
+                if (s == STOPPING_NOW) {
+                    handleTerminationMessage(message);
+                } else {
+                    // a child stopped of its own accord, this actor keeps going
+                    children.remove(message.sender().name());
+                }
             } else if (systemMessagesOnly) {
                 sendToDeadLetter(message);
             } else {
                 if (!preStartHasBeenRun) {
                     runPreStart(message);
                 }
-                try {
-                    actor.onMessage(message);
-                } catch (Throwable e) {
-                    // if the line below throws then the actor will no longer process messages
-                    // (because wip will be != 0)
-                    supervisor.processFailure(message, this, e);
+                if (batchActor != null) {
+                    finished = deliverBatch(message, s, maxMessages - count);
+                    count += finished - 1;
+                } else if (asyncActor != null) {
+                    if (deliverAsync(message)) {
+                        // finished with when its stage completes
+                        finished = 0;
+                    }
+                } else {
+                    try {
+                        actor.onMessage(message);
+                    } catch (Throwable e) {
+                        // if the line below throws then the actor will no longer process messages
+                        // (because wip will be != 0)
+                        supervisor.processFailure(message, this, e);
+                    }
                 }
             }
+            if (!latestFromControl) {
+                addQueued(-finished);
+            }
+            count++;
+            if (count == maxMessages || maxTimeNanos != 0 && System.nanoTime() - startTime >= maxTimeNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void discardUserMessages() {
+        int n = 0;
+        if (pending != null) {
+            n = pending.size();
+            pending.clear();
+            latestFromPending = null;
+        }
+        while (mailbox.poll() != null) {
+            n++;
+        }
+        addQueued(-n);
+    }
+
+    /**
+     * Delivers {@code first} and the user messages that are already available
+     * (up to the batch size) to the BatchActor in one call. A system message
+     * polled while collecting ends the batch and is processed after it.
+     * 
+     * @param first first message of the batch
+     * @param s     the actor state when first was polled
+     * @param limit maximum number of messages allowed by the throughput limit
+     * @return the number of messages delivered
+     */
+    private int deliverBatch(Message<T> first, int s, int limit) {
+        int maxSize = Math.min(batchActor.maxBatchSize(), limit);
+        List<Message<T>> list = new ArrayList<>(Math.min(maxSize, 16));
+        list.add(first);
+        Message<T> m;
+        while (list.size() < maxSize && state.get() == s && control.isEmpty() && (m = pollUser()) != null) {
+            Object content = m.content();
+            if (content == PoisonPill.instance() || content == Terminated.INSTANCE) {
+                pending().addFirst(m);
+                break;
+            }
+            list.add(m);
+        }
+        batch = list;
+        try {
+            batchActor.onMessages(Collections.unmodifiableList(list));
+        } catch (Throwable e) {
+            // if the line below throws then the actor will no longer process messages
+            // (because wip will be != 0)
+            supervisor.processFailure(first, this, e);
+        } finally {
+            batch = null;
+        }
+        return list.size();
+    }
+
+    /**
+     * Passes the message to the AsyncActor.
+     * 
+     * @param message message
+     * @return true if the actor returned a stage (now in flight)
+     */
+    private boolean deliverAsync(Message<T> message) {
+        CompletionStage<?> stage;
+        try {
+            stage = asyncActor.onMessageAsync(message);
+        } catch (Throwable e) {
+            // if the line below throws then the actor will no longer process messages
+            // (because wip will be != 0)
+            supervisor.processFailure(message, this, e);
+            return false;
+        }
+        if (stage == null) {
+            return false;
+        } else {
+            asyncInFlight++;
+            // if the stage is already complete this runs now and the completion is
+            // processed before the next user message because control messages are
+            // polled first
+            stage.whenComplete((value, error) -> tellControl(new AsyncCompletion(message, error), this));
+            return true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handleAsyncCompletion(AsyncCompletion completion, int s) {
+        asyncInFlight--;
+        // the message is finished with (a retry counts it again)
+        addQueued(-1);
+        Throwable error = completion.error;
+        if (error != null && s == ACTIVE && !systemMessagesOnly) {
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            asyncFailed = (Message<T>) completion.message;
+            try {
+                // if the line below throws then the actor will no longer process messages
+                // (because wip will be != 0)
+                supervisor.processFailure(asyncFailed, this, error);
+            } finally {
+                asyncFailed = null;
+            }
         }
     }
 
@@ -381,9 +778,64 @@ public abstract class ActorRefImpl<T> implements SupervisedActorRef<T>, Runnable
         }
     }
 
+    // called from the drain (one thread at a time)
+    void recordBlocking(long nanos) {
+        BlockingCounter b = blocking;
+        if (b == null) {
+            b = new BlockingCounter();
+            blocking = b;
+        }
+        b.count++;
+        b.totalNanos += nanos;
+        if (nanos > b.maxNanos) {
+            b.maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Returns the approximate number of user messages waiting in the mailbox or
+     * being processed if this actor was created to count them, otherwise 0.
+     * 
+     * @return approximate mailbox size
+     */
+    public int mailboxSize() {
+        AtomicInteger q = queued;
+        return q == null ? 0 : Math.max(0, q.get());
+    }
+
+    @Override
+    public BlockingStats blockingStats() {
+        BlockingCounter b = blocking;
+        if (b == null) {
+            return BlockingStats.NONE;
+        } else {
+            return new BlockingStats(b.count, b.totalNanos, b.maxNanos);
+        }
+    }
+
     @Override
     public String toString() {
         return name;
     }
 
+    // control message content reporting the completion of a stage returned by an
+    // AsyncActor
+    private static final class AsyncCompletion {
+        final Message<?> message;
+        final Throwable error; // nullable
+
+        AsyncCompletion(Message<?> message, Throwable error) {
+            this.message = message;
+            this.error = error;
+        }
+    }
+
+    // single writer (the drain) so volatile fields are enough for readers on
+    // other threads
+    private static final class BlockingCounter {
+        volatile long count;
+        volatile long totalNanos;
+        volatile long maxNanos;
+    }
+
 }
@@ -3,6 +3,7 @@ package com.github.davidmoten.reels.internal;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.github.davidmoten.reels.ActorRef;
 import com.github.davidmoten.reels.Context;
@@ -34,6 +35,11 @@ public final class ActorRefNone implements ActorRef<Object> {
         return f;
     }
 
+    @Override
+    public <S> CompletableFuture<S> ask(Object message, long timeout, TimeUnit unit) {
+        return ask(message);
+    }
+
     @Override
     public void stop() {
         // do nothing
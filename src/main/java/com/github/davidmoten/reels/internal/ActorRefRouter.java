@@ -0,0 +1,256 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.RouterStrategy;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.internal.util.FastRandomInt;
+import com.github.davidmoten.reels.internal.util.Util;
+
+/**
+ * An ActorRef without a mailbox that forwards each message to one of its
+ * routees, chosen on the calling thread. Stopping the router stops the
+ * routees.
+ *
+ * @param <T> message type
+ */
+public final class ActorRefRouter<T> implements ActorRef<T> {
+
+    private static final ThreadLocal<FastRandomInt> RANDOM = ThreadLocal.withInitial(FastRandomInt::new);
+
+    private final String name;
+    private final Context context;
+    private final ActorRef<?> parent;
+    private final ActorRefImpl<T>[] routees;
+    private final Routing<T> routing;
+
+    @SuppressWarnings("unchecked")
+    public ActorRefRouter(String name, Context context, ActorRef<?> parent, RouterStrategy<T> strategy,
+            List<ActorRef<T>> routees) {
+        Preconditions.checkArgument(!routees.isEmpty(), "routees cannot be empty");
+        this.name = name;
+        this.context = context;
+        this.parent = parent;
+        this.routees = (ActorRefImpl<T>[]) new ActorRefImpl<?>[routees.size()];
+        for (int i = 0; i < this.routees.length; i++) {
+            this.routees[i] = (ActorRefImpl<T>) routees.get(i);
+        }
+        this.routing = routing(strategy, this.routees);
+    }
+
+    private static <T> Routing<T> routing(RouterStrategy<T> strategy, ActorRefImpl<T>[] routees) {
+        switch (strategy.type()) {
+        case ROUND_ROBIN:
+            return new RoundRobin<T>(routees.length);
+        case RANDOM:
+            return message -> RANDOM.get().nextInt(routees.length);
+        case SMALLEST_MAILBOX:
+            return new SmallestMailbox<T>(routees);
+        default:
+            return new ConsistentHash<T>(strategy.key(), routees.length);
+        }
+    }
+
+    @Override
+    public void tell(T message) {
+        tell(message, ActorRef.none());
+    }
+
+    @Override
+    public void tell(T message, ActorRef<?> sender) {
+        routees[routing.route(message)].tell(message, sender);
+    }
+
+    @Override
+    public <S> CompletableFuture<S> ask(T message) {
+        return routees[routing.route(message)].ask(message);
+    }
+
+    @Override
+    public <S> CompletableFuture<S> ask(T message, long timeout, TimeUnit unit) {
+        return routees[routing.route(message)].ask(message, timeout, unit);
+    }
+
+    @Override
+    public void stop() {
+        for (ActorRef<T> routee : routees) {
+            routee.stop();
+        }
+    }
+
+    @Override
+    public void stopNow() {
+        for (ActorRef<T> routee : routees) {
+            routee.stopNow();
+        }
+    }
+
+    @Override
+    public boolean isStopped() {
+        for (ActorRef<T> routee : routees) {
+            if (!routee.isStopped()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Context context() {
+        return context;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Scheduler scheduler() {
+        return routees[0].scheduler();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <S> ActorRef<S> parent() {
+        return (ActorRef<S>) parent;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <S> ActorRef<S> child(String name) {
+        for (ActorRef<T> routee : routees) {
+            if (routee.name().equals(name)) {
+                return (ActorRef<S>) routee;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <S> Collection<ActorRef<S>> children() {
+        List<ActorRef<S>> list = new ArrayList<>(routees.length);
+        for (ActorRef<T> routee : routees) {
+            list.add((ActorRef<S>) routee);
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    @FunctionalInterface
+    private interface Routing<T> {
+        // returns the index of the chosen routee
+        int route(T message);
+    }
+
+    private static final class RoundRobin<T> implements Routing<T> {
+
+        // longs per stripe so that each stripe is on its own cache line
+        private static final int PAD = 16;
+
+        private final int size;
+        private final int mask;
+        private final AtomicLongArray counters;
+
+        RoundRobin(int size) {
+            this.size = size;
+            int stripes = Util.roundToPowerOfTwo(Runtime.getRuntime().availableProcessors());
+            this.mask = stripes - 1;
+            this.counters = new AtomicLongArray(stripes * PAD);
+            for (int i = 0; i < stripes; i++) {
+                // stripes start on different routees
+                counters.set(i * PAD, i);
+            }
+        }
+
+        @Override
+        public int route(T message) {
+            int stripe = (int) Thread.currentThread().getId() & mask;
+            return (int) (counters.getAndIncrement(stripe * PAD) % size);
+        }
+    }
+
+    private static final class SmallestMailbox<T> implements Routing<T> {
+
+        private final ActorRefImpl<T>[] routees;
+
+        SmallestMailbox(ActorRefImpl<T>[] routees) {
+            this.routees = routees;
+        }
+
+        @Override
+        public int route(T message) {
+            int n = routees.length;
+            // start the scan at a random routee so ties are spread
+            int start = RANDOM.get().nextInt(n);
+            int best = start;
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                int j = start + i;
+                if (j >= n) {
+                    j -= n;
+                }
+                int size = routees[j].mailboxSize();
+                if (size < min) {
+                    min = size;
+                    best = j;
+                    if (size == 0) {
+                        break;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class ConsistentHash<T> implements Routing<T> {
+
+        private final Function<? super T, ?> key;
+        private final int size;
+
+        ConsistentHash(Function<? super T, ?> key, int size) {
+            this.key = key;
+            this.size = size;
+        }
+
+        @Override
+        public int route(T message) {
+            Object k = key.apply(message);
+            return jumpHash(k == null ? 0 : k.hashCode() * 0x9E3779B97F4A7C15L, size);
+        }
+    }
+
+    /**
+     * Jump consistent hash (Lamping and Veach). Maps a key to one of
+     * {@code buckets} buckets such that growing the number of buckets by one only
+     * moves 1/buckets of the keys.
+     * 
+     * @param key     key
+     * @param buckets number of buckets
+     * @return bucket in [0, buckets)
+     */
+    // VisibleForTesting
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
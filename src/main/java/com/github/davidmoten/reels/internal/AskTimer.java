@@ -0,0 +1,61 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.internal.scheduler.HashedWheelTimer;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerHelper;
+
+/**
+ * The timer shared by all asks with a timeout. Its thread is only created when
+ * first used.
+ */
+public final class AskTimer {
+
+    private AskTimer() {
+        // prevent instantiation
+    }
+
+    private static final class Holder {
+        static final HashedWheelTimer TIMER = new HashedWheelTimer(1, TimeUnit.MILLISECONDS,
+                SchedulerHelper.createThreadFactory("ReelsAskTimer"));
+    }
+
+    /**
+     * Runs {@code run} on the common ForkJoinPool once the timeout has elapsed so
+     * that dependent stages of a timed out future don't run on the timer thread.
+     * 
+     * @param run     action on timeout
+     * @param timeout timeout
+     * @param unit    timeout unit
+     * @return disposable that cancels the timeout
+     */
+    static Disposable schedule(Runnable run, long timeout, TimeUnit unit) {
+        return Holder.TIMER.schedule(run, timeout, unit, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Completes {@code future} exceptionally with a {@link TimeoutException} if it
+     * has not completed within the timeout. Used by the default
+     * {@link ActorRef#ask(Object, long, TimeUnit)}.
+     * 
+     * @param <S>     result type
+     * @param future  future to time
+     * @param timeout maximum time to wait for completion
+     * @param unit    timeout unit
+     * @return {@code future}
+     */
+    public static <S> CompletableFuture<S> timeout(CompletableFuture<S> future, long timeout, TimeUnit unit) {
+        Preconditions.checkArgumentNonNull(future, "future");
+        Preconditions.checkArgumentNonNull(unit, "unit");
+        Disposable d = schedule(
+                () -> future.completeExceptionally(new TimeoutException("no reply to ask within timeout")), timeout,
+                unit);
+        future.whenComplete((value, error) -> d.dispose());
+        return future;
+    }
+}
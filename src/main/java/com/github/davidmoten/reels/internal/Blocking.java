@@ -0,0 +1,77 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import com.github.davidmoten.reels.ActorRef;
+
+/**
+ * Runs blocking sections of an actor's message processing so that a
+ * ForkJoinPool running the actor can add a thread to compensate while it
+ * blocks.
+ */
+public final class Blocking {
+
+    private Blocking() {
+        // prevent instantiation
+    }
+
+    /**
+     * Returns the result of {@code callable} run with
+     * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)} and records
+     * the time taken against {@code actor}. On a thread that is not a ForkJoinPool
+     * worker the callable is simply called.
+     * 
+     * @param <S>      result type
+     * @param actor    actor doing the blocking
+     * @param callable blocking work
+     * @return result of callable
+     */
+    public static <S> S call(ActorRef<?> actor, Callable<? extends S> callable) {
+        Blocker<S> blocker = new Blocker<S>(callable);
+        long start = System.nanoTime();
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            // not thrown by Blocker.block but declared by managedBlock
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            if (actor instanceof ActorRefImpl) {
+                ((ActorRefImpl<?>) actor).recordBlocking(System.nanoTime() - start);
+            }
+        }
+        if (blocker.error != null) {
+            throw Exceptions.wrapOrThrow(blocker.error);
+        }
+        return blocker.value;
+    }
+
+    private static final class Blocker<S> implements ForkJoinPool.ManagedBlocker {
+
+        private final Callable<? extends S> callable;
+        S value;
+        Throwable error;
+        private boolean done;
+
+        Blocker(Callable<? extends S> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                value = callable.call();
+            } catch (Throwable e) {
+                error = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
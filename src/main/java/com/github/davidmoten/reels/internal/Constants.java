@@ -1,9 +1,9 @@
 package com.github.davidmoten.reels.internal;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
 import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerEventLoop;
 import com.github.davidmoten.reels.internal.scheduler.SchedulerHelper;
 
 public final class Constants {
@@ -12,7 +12,7 @@ public final class Constants {
         // prevent instantiation
     }
 
-    public static final Scheduler SINGLE = Scheduler.fromExecutor(Executors.newSingleThreadScheduledExecutor(SchedulerHelper.createThreadFactory("ReelsSingle")), false);
+    public static final Scheduler SINGLE = new SchedulerEventLoop(SchedulerHelper.createThreadFactory("ReelsSingle"));
     
     public static final ThreadFactory NEW_SINGLE_THREAD_FACTORY = SchedulerHelper.createThreadFactory("ReelsNewSingle");
 
@@ -0,0 +1,48 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records the actors told messages during one drain of an actor so that each
+ * recipient's drain is scheduled once when the sender's drain ends rather than
+ * on every tell. Owned by a single actor and so only accessed by the thread
+ * running that actor's drain.
+ */
+final class Outbox {
+
+    // in first tell order so that recipients are scheduled in that order
+    private final List<ActorRefImpl<?>> recipients = new ArrayList<>();
+    private final Set<ActorRefImpl<?>> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private ActorRefImpl<?> last;
+
+    void add(ActorRefImpl<?> recipient) {
+        // avoid the set lookup for consecutive tells to the same actor
+        if (recipient != last) {
+            last = recipient;
+            if (seen.add(recipient)) {
+                recipients.add(recipient);
+            }
+        }
+    }
+
+    /**
+     * Schedules the drain of each recorded recipient and forgets them.
+     */
+    void flush() {
+        if (last == null) {
+            return;
+        }
+        last = null;
+        seen.clear();
+        // the outbox is no longer current on this thread so a recipient drain
+        // run synchronously (by an immediate scheduler) cannot add to it here
+        for (int i = 0; i < recipients.size(); i++) {
+            recipients.get(i).scheduleDrain();
+        }
+        recipients.clear();
+    }
+}
@@ -10,13 +10,14 @@ import com.github.davidmoten.reels.MailboxFactory;
 import com.github.davidmoten.reels.Scheduler;
 import com.github.davidmoten.reels.Supervisor;
 
-public final class RootActorRefImpl extends ActorRefSynchronizedDrain<Object> {
+public final class RootActorRefImpl extends ActorRefImpl<Object> {
     
     private final CompletableFuture<Void> stopFuture = new CompletableFuture<>();
 
     public RootActorRefImpl(String name, Supplier<? extends Actor<Object>> factory, Scheduler scheduler,
             Context context, Supervisor supervisor) {
-        super(name, factory, scheduler, context, supervisor, null, MailboxFactory.unbounded());
+        super(name, factory, scheduler, context, supervisor, null, MailboxFactory.defaultMailboxFactory(),
+                Throughput.UNLIMITED, false, false, false);
     }
 
     public CompletableFuture<Void> stopFuture() {
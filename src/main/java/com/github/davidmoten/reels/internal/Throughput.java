@@ -0,0 +1,37 @@
+package com.github.davidmoten.reels.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on the work done by one drain of an actor's mailbox. Once a limit is
+ * reached the actor yields its thread and resubmits itself to its Worker so
+ * that other actors sharing that thread get a turn.
+ */
+public final class Throughput {
+
+    public static final Throughput UNLIMITED = new Throughput(Integer.MAX_VALUE, 0);
+
+    private final int maxMessages;
+    private final long maxTimeNanos; // 0 = no time budget
+
+    private Throughput(int maxMessages, long maxTimeNanos) {
+        this.maxMessages = maxMessages;
+        this.maxTimeNanos = maxTimeNanos;
+    }
+
+    public static Throughput create(int maxMessages, long maxTime, TimeUnit unit) {
+        Preconditions.checkArgument(maxMessages > 0, "maxMessages must be > 0");
+        Preconditions.checkArgument(maxTime >= 0, "maxTime must be >= 0");
+        Preconditions.checkArgumentNonNull(unit, "unit");
+        return new Throughput(maxMessages, unit.toNanos(maxTime));
+    }
+
+    public int maxMessages() {
+        return maxMessages;
+    }
+
+    public long maxTimeNanos() {
+        return maxTimeNanos;
+    }
+
+}
@@ -1,24 +1,17 @@
 package com.github.davidmoten.reels.internal.mailbox;
 
-import java.util.ArrayDeque;
-
 import com.github.davidmoten.reels.Mailbox;
 import com.github.davidmoten.reels.Message;
+import com.github.davidmoten.reels.internal.queue.MpscBoundedArrayQueue;
 
-public final class MailboxBounded<T> extends ArrayDeque<Message<T>> implements Mailbox<T> {
-
-    private static final long serialVersionUID = 5507680744735201877L;
-
-    private final int maxSize;
-
-    private final boolean dropFirst;
+public final class MailboxBounded<T> extends MpscBoundedArrayQueue<Message<T>> implements Mailbox<T> {
 
     private Message<T> latest;
     private boolean retry;
+    private volatile Runnable onDrop;
 
     public MailboxBounded(int maxSize, boolean dropFirst) {
-        this.maxSize = maxSize;
-        this.dropFirst = dropFirst;
+        super(maxSize, dropFirst);
     }
 
     @Override
@@ -28,27 +21,31 @@ public final class MailboxBounded<T> extends ArrayDeque<Message<T>> implements M
             return latest;
         } else {
             retry = false;
-            synchronized (this) {
-                return latest = super.poll();
-            }
+            return latest = super.poll();
         }
     }
 
     @Override
-    public synchronized boolean offer(Message<T> message) {
-        if (size() == maxSize) {
-            if (dropFirst) {
-                pollFirst();
-            } else {
-                return false;
-            }
-        }
-        return super.offer(message);
+    public void retryLatest() {
+        retry = true;
+    }
+
+    /**
+     * Sets the action to run when the oldest message is dropped to make room for a
+     * new one (only happens when {@code dropFirst} is true).
+     *
+     * @param onDrop action to run on each drop
+     */
+    public void onDrop(Runnable onDrop) {
+        this.onDrop = onDrop;
     }
 
     @Override
-    public void retryLatest() {
-        retry = true;
+    protected void dropped(Message<T> e) {
+        Runnable r = onDrop;
+        if (r != null) {
+            r.run();
+        }
     }
 
 }
@@ -0,0 +1,32 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.Message;
+import com.github.davidmoten.reels.internal.queue.MpscLinkedArrayQueue;
+
+public final class MailboxUnboundedChunked<T> extends MpscLinkedArrayQueue<Message<T>> implements Mailbox<T> {
+
+    private Message<T> latest;
+    private boolean retry;
+
+    public MailboxUnboundedChunked(int chunkSize) {
+        super(chunkSize);
+    }
+
+    @Override
+    public Message<T> poll() {
+        if (retry && latest != null) {
+            retry = false;
+            return latest;
+        } else {
+            retry = false;
+            return latest = super.poll();
+        }
+    }
+
+    @Override
+    public void retryLatest() {
+        retry = true;
+    }
+
+}
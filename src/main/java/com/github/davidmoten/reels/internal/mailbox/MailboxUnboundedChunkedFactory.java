@@ -0,0 +1,19 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.MailboxFactory;
+
+public final class MailboxUnboundedChunkedFactory implements MailboxFactory {
+
+    private final int chunkSize;
+
+    public MailboxUnboundedChunkedFactory(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public <T> Mailbox<T> create() {
+        return new MailboxUnboundedChunked<T>(chunkSize);
+    }
+
+}
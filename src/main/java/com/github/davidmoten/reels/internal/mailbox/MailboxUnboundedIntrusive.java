@@ -0,0 +1,35 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.Message;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveLinkedQueue;
+
+/**
+ * Unbounded mailbox that uses the {@link Message} itself as the queue node so
+ * no extra allocation happens per offer. A Message instance must not be offered
+ * more than once.
+ * 
+ * @param <T> message content type
+ */
+public final class MailboxUnboundedIntrusive<T> extends MpscIntrusiveLinkedQueue<Message<T>> implements Mailbox<T> {
+
+    private Message<T> latest;
+    private boolean retry;
+
+    @Override
+    public Message<T> poll() {
+        if (retry && latest != null) {
+            retry = false;
+            return latest;
+        } else {
+            retry = false;
+            return latest = super.poll();
+        }
+    }
+
+    @Override
+    public void retryLatest() {
+        retry = true;
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.MailboxFactory;
+
+public final class MailboxUnboundedIntrusiveFactory implements MailboxFactory {
+
+    public static final MailboxUnboundedIntrusiveFactory INSTANCE = new MailboxUnboundedIntrusiveFactory();
+
+    private MailboxUnboundedIntrusiveFactory() {
+        // prevent instantiation
+    }
+
+    @Override
+    public <T> Mailbox<T> create() {
+        return new MailboxUnboundedIntrusive<T>();
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * The algorithm is Dmitry Vyukov's bounded MPMC queue:
+ * http://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue
+ */
+
+package com.github.davidmoten.reels.internal.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.github.davidmoten.reels.internal.Preconditions;
+import com.github.davidmoten.reels.internal.util.Util;
+
+/**
+ * A lock-free multi-producer single consumer bounded queue backed by a ring
+ * buffer whose capacity is the power of two at or above {@code maxSize}. Each
+ * slot has a sequence number that says whether the slot is ready to be written
+ * by the producer claiming it or read by the consumer.
+ *
+ * <p>
+ * When {@code maxSize} elements are queued an offer either fails (drop newest)
+ * or removes the oldest element to make room (drop oldest). Because producers
+ * may remove elements in the drop oldest case the consumer index is advanced
+ * with a compare-and-set in that mode. Otherwise only the consumer moves it.
+ *
+ * @param <T> the contained value type
+ */
+public class MpscBoundedArrayQueue<T> implements SimplePlainQueue<T> {
+
+    private final int maxSize;
+    private final boolean dropFirst;
+    private final int mask;
+    private final AtomicReferenceArray<T> buffer;
+    private final AtomicLongArray sequences;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscBoundedArrayQueue(int maxSize, boolean dropFirst) {
+        Preconditions.checkArgument(maxSize > 0, "maxSize must be > 0");
+        Preconditions.checkArgument(maxSize <= 1 << 30, "maxSize must be <= 2^30");
+        this.maxSize = maxSize;
+        this.dropFirst = dropFirst;
+        int capacity = Util.roundToPowerOfTwo(maxSize);
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.lazySet(i, i);
+        }
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * <p>
+     * IMPLEMENTATION NOTES:<br>
+     * Offer is allowed from multiple threads.<br>
+     * Returns false if the queue is full and the queue drops newest. If the queue
+     * drops oldest then the oldest element is discarded and the offer retried.
+     */
+    @Override
+    public boolean offer(final T e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        while (true) {
+            long p = producerIndex.get();
+            int offset = (int) p & mask;
+            long seq = sequences.get(offset);
+            long c = consumerIndex.get();
+            if (seq == p && p - c < maxSize) {
+                if (producerIndex.compareAndSet(p, p + 1)) {
+                    buffer.lazySet(offset, e);
+                    // publishes the element to the consumer: StoreStore
+                    sequences.lazySet(offset, p + 1);
+                    return true;
+                }
+            } else if (seq <= p && p - c >= maxSize) {
+                if (!dropFirst) {
+                    return false;
+                }
+                T dropped = dequeue();
+                if (dropped != null) {
+                    dropped(dropped);
+                }
+            }
+            // otherwise another producer claimed p or the consumer is part way
+            // through releasing the slot, try again
+        }
+    }
+
+    /**
+     * Called on the offering thread when the oldest element is removed to make
+     * room for a new one (drop oldest mode only). Does nothing by default.
+     *
+     * @param e the removed element
+     */
+    protected void dropped(T e) {
+        // do nothing
+    }
+
+    /**
+     * Enqueues the values one after the other (there is no atomicity across the
+     * two values).
+     *
+     * @return true if both values were enqueued
+     */
+    @Override
+    public boolean offer(T v1, T v2) {
+        boolean accepted = offer(v1);
+        return offer(v2) && accepted;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * <p>
+     * IMPLEMENTATION NOTES:<br>
+     * Poll is allowed from a SINGLE thread.<br>
+     * If a producer has claimed the next slot but not yet written to it then poll
+     * spins till the write is visible.
+     */
+    @Override
+    public T poll() {
+        return dequeue();
+    }
+
+    private T dequeue() {
+        while (true) {
+            long c = consumerIndex.get();
+            int offset = (int) c & mask;
+            long seq = sequences.get(offset);
+            if (seq == c + 1) {
+                if (!dropFirst) {
+                    consumerIndex.lazySet(c + 1);
+                } else if (!consumerIndex.compareAndSet(c, c + 1)) {
+                    // a producer dropped the element
+                    continue;
+                }
+                T e = buffer.get(offset);
+                buffer.lazySet(offset, null);
+                // releases the slot for the producer one lap ahead
+                sequences.lazySet(offset, c + mask + 1);
+                return e;
+            } else if (seq <= c && producerIndex.get() == c) {
+                return null;
+            }
+            // otherwise a producer has claimed the slot but not written to it yet
+            // or c is stale, spin
+        }
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null) { } // NOPMD
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+}
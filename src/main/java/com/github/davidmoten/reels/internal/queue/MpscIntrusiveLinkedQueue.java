@@ -0,0 +1,116 @@
+package com.github.davidmoten.reels.internal.queue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A multi-producer single consumer unbounded queue where the elements are the
+ * linked nodes (see {@link MpscIntrusiveNode}). Follows the same algorithm as
+ * {@link MpscLinkedQueue} except that offer does not allocate. The last polled
+ * element takes the place of the empty consumer node until the following
+ * element is polled.
+ *
+ * @param <T> the contained value type
+ */
+public class MpscIntrusiveLinkedQueue<T extends MpscIntrusiveNode> implements SimplePlainQueue<T> {
+
+    private final AtomicReference<MpscIntrusiveNode> producerNode;
+    private MpscIntrusiveNode consumerNode; // only accessed by the consumer
+
+    public MpscIntrusiveLinkedQueue() {
+        producerNode = new AtomicReference<>();
+        MpscIntrusiveNode stub = new Stub();
+        consumerNode = stub;
+        producerNode.getAndSet(stub); // this ensures correct construction: StoreLoad
+    }
+
+    @Override
+    public boolean offer(final T e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        e.soNext(null);
+        final MpscIntrusiveNode prevProducerNode = producerNode.getAndSet(e);
+        // Should a producer thread get interrupted here the chain WILL be broken until
+        // that thread is resumed and completes the store in prev.next.
+        prevProducerNode.soNext(e); // StoreStore
+        return true;
+    }
+
+    /**
+     * Enqueues both values with a single exchange on the producer node.
+     */
+    @Override
+    public boolean offer(T v1, T v2) {
+        if (null == v1 || null == v2) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        v2.soNext(null);
+        v1.soNext(v2);
+        final MpscIntrusiveNode prevProducerNode = producerNode.getAndSet(v2);
+        prevProducerNode.soNext(v1);
+        return true;
+    }
+
+    /**
+     * Enqueues the values in iteration order with a single exchange on the
+     * producer node. The batch is linked together before the exchange so it
+     * becomes visible to the consumer all at once.
+     * 
+     * @param values values to enqueue, not null and containing no nulls
+     * @return true
+     */
+    public boolean offerAll(Iterable<? extends T> values) {
+        MpscIntrusiveNode first = null;
+        MpscIntrusiveNode last = null;
+        for (T e : values) {
+            if (null == e) {
+                throw new NullPointerException("Null is not a valid element");
+            }
+            e.soNext(null);
+            if (last == null) {
+                first = e;
+            } else {
+                last.soNext(e);
+            }
+            last = e;
+        }
+        if (last != null) {
+            final MpscIntrusiveNode prevProducerNode = producerNode.getAndSet(last);
+            prevProducerNode.soNext(first);
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T poll() {
+        MpscIntrusiveNode currConsumerNode = consumerNode;
+        MpscIntrusiveNode nextNode = currConsumerNode.lvNext();
+        if (nextNode == null) {
+            if (currConsumerNode == producerNode.get()) {
+                return null;
+            }
+            // spin, we are no longer wait free
+            while ((nextNode = currConsumerNode.lvNext()) == null) { } // NOPMD
+        }
+        // a producer has moved on from currConsumerNode so nothing else will write
+        // its next field. Clear it so that a reference to a consumed element held
+        // elsewhere does not retain the rest of the queue.
+        currConsumerNode.soNext(null);
+        consumerNode = nextNode;
+        return (T) nextNode;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null && !isEmpty()) { } // NOPMD
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerNode == producerNode.get();
+    }
+
+    private static final class Stub extends MpscIntrusiveNode {
+    }
+}
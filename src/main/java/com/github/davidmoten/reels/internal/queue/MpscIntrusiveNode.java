@@ -0,0 +1,26 @@
+package com.github.davidmoten.reels.internal.queue;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Base class for elements of an {@link MpscIntrusiveLinkedQueue}. The link to
+ * the next element is held by the element itself so that enqueueing does not
+ * allocate a node. An instance can only be in one queue at a time and should be
+ * offered at most once.
+ */
+public abstract class MpscIntrusiveNode {
+
+    private static final AtomicReferenceFieldUpdater<MpscIntrusiveNode, MpscIntrusiveNode> NEXT = AtomicReferenceFieldUpdater
+            .newUpdater(MpscIntrusiveNode.class, MpscIntrusiveNode.class, "next");
+
+    private volatile MpscIntrusiveNode next;
+
+    final MpscIntrusiveNode lvNext() {
+        return next;
+    }
+
+    final void soNext(MpscIntrusiveNode n) {
+        NEXT.lazySet(this, n);
+    }
+
+}
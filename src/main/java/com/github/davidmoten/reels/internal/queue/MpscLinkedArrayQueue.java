@@ -0,0 +1,209 @@
+/*
+ * The code was inspired by the JCTools unbounded array queues:
+ * https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues
+ */
+
+package com.github.davidmoten.reels.internal.queue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.github.davidmoten.reels.internal.Preconditions;
+
+/**
+ * A multi-producer single consumer unbounded queue made of a linked list of
+ * fixed size arrays (chunks). Compared to {@link MpscLinkedQueue} there is one
+ * allocation per chunk rather than per element and polling walks through
+ * contiguous memory. Chunks are not reused, a new one is linked in when the
+ * current producer chunk is full.
+ *
+ * <p>
+ * The producer and consumer fields are padded so that they sit on different
+ * cache lines.
+ *
+ * @param <T> the contained value type
+ */
+public class MpscLinkedArrayQueue<T> extends MpscLinkedArrayQueueConsumerFields<T> implements SimplePlainQueue<T> {
+
+    long p20, p21, p22, p23, p24, p25, p26, p27; // NOPMD
+    long p30, p31, p32, p33, p34, p35, p36, p37; // NOPMD
+
+    public static final int DEFAULT_CHUNK_SIZE = 128;
+
+    public MpscLinkedArrayQueue() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public MpscLinkedArrayQueue(int chunkSize) {
+        super(createChunk(chunkSize));
+    }
+
+    private static <T> Chunk<T> createChunk(int chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0, "chunkSize must be > 0");
+        return new Chunk<T>(chunkSize);
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * <p>
+     * IMPLEMENTATION NOTES:<br>
+     * Offer is allowed from multiple threads.<br>
+     * A producer claims a slot in the current producer chunk by incrementing its
+     * index. If the chunk is full then the producer tries to link a new chunk
+     * (holding the element in its first slot) to the full one. Only one producer
+     * wins that race, the others move on to the winner's chunk.
+     */
+    @Override
+    public boolean offer(final T e) {
+        if (null == e) {
+            throw new NullPointerException("Null is not a valid element");
+        }
+        Chunk<T> chunk = lvProducerChunk();
+        while (true) {
+            int index = chunk.producerIndex.getAndIncrement();
+            if (index < chunk.length()) {
+                chunk.lazySet(index, e);
+                return true;
+            }
+            Chunk<T> next = chunk.next.get();
+            if (next == null) {
+                Chunk<T> c = new Chunk<T>(chunk.length());
+                c.producerIndex.lazySet(1);
+                c.lazySet(0, e);
+                if (chunk.next.compareAndSet(null, c)) {
+                    casProducerChunk(chunk, c);
+                    return true;
+                }
+                next = chunk.next.get();
+            }
+            // help other producers move on from the full chunk
+            casProducerChunk(chunk, next);
+            chunk = next;
+        }
+    }
+
+    @Override
+    public boolean offer(T v1, T v2) {
+        offer(v1);
+        offer(v2);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} <br>
+     * <p>
+     * IMPLEMENTATION NOTES:<br>
+     * Poll is allowed from a SINGLE thread.<br>
+     * If a producer has claimed the next slot but not yet written to it then
+     * poll spins till the write is visible (as {@link MpscLinkedQueue} does).
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public T poll() {
+        Chunk<T> chunk = consumerChunk;
+        int index = consumerIndex;
+        if (index == chunk.length()) {
+            Chunk<T> next = chunk.next.get();
+            if (next == null) {
+                if (chunk.producerIndex.get() <= index) {
+                    return null;
+                }
+                // spin, a producer is linking the next chunk
+                while ((next = chunk.next.get()) == null) { } // NOPMD
+            }
+            chunk = next;
+            index = 0;
+            consumerChunk = next;
+            consumerIndex = 0;
+        }
+        Object e = chunk.get(index);
+        if (e == null) {
+            if (chunk.producerIndex.get() <= index) {
+                return null;
+            }
+            // spin, a producer has claimed the slot but not written to it yet
+            while ((e = chunk.get(index)) == null) { } // NOPMD
+        }
+        chunk.lazySet(index, null);
+        consumerIndex = index + 1;
+        return (T) e;
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null && !isEmpty()) { } // NOPMD
+    }
+
+    @Override
+    public boolean isEmpty() {
+        Chunk<T> chunk = consumerChunk;
+        int index = consumerIndex;
+        if (index == chunk.length()) {
+            return chunk.next.get() == null && chunk.producerIndex.get() <= index;
+        } else {
+            return chunk.producerIndex.get() <= index;
+        }
+    }
+
+    static final class Chunk<T> extends AtomicReferenceArray<Object> {
+
+        private static final long serialVersionUID = -7441463599040003637L;
+
+        final AtomicInteger producerIndex = new AtomicInteger();
+        final AtomicReference<Chunk<T>> next = new AtomicReference<>();
+
+        Chunk(int size) {
+            super(size);
+        }
+    }
+}
+
+abstract class MpscLinkedArrayQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07; // NOPMD
+    long p10, p11, p12, p13, p14, p15, p16, p17; // NOPMD
+}
+
+abstract class MpscLinkedArrayQueueProducerFields<T> extends MpscLinkedArrayQueuePad0 {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<MpscLinkedArrayQueueProducerFields, MpscLinkedArrayQueue.Chunk> PRODUCER_CHUNK = AtomicReferenceFieldUpdater
+            .newUpdater(MpscLinkedArrayQueueProducerFields.class, MpscLinkedArrayQueue.Chunk.class,
+                    "producerChunk");
+
+    private volatile MpscLinkedArrayQueue.Chunk<T> producerChunk;
+
+    MpscLinkedArrayQueueProducerFields(MpscLinkedArrayQueue.Chunk<T> chunk) {
+        this.producerChunk = chunk;
+    }
+
+    final MpscLinkedArrayQueue.Chunk<T> lvProducerChunk() {
+        return producerChunk;
+    }
+
+    final void casProducerChunk(MpscLinkedArrayQueue.Chunk<T> expect, MpscLinkedArrayQueue.Chunk<T> update) {
+        PRODUCER_CHUNK.compareAndSet(this, expect, update);
+    }
+}
+
+abstract class MpscLinkedArrayQueuePad1<T> extends MpscLinkedArrayQueueProducerFields<T> {
+    long p00, p01, p02, p03, p04, p05, p06, p07; // NOPMD
+    long p10, p11, p12, p13, p14, p15, p16, p17; // NOPMD
+
+    MpscLinkedArrayQueuePad1(MpscLinkedArrayQueue.Chunk<T> chunk) {
+        super(chunk);
+    }
+}
+
+abstract class MpscLinkedArrayQueueConsumerFields<T> extends MpscLinkedArrayQueuePad1<T> {
+
+    // only accessed by the consumer
+    MpscLinkedArrayQueue.Chunk<T> consumerChunk;
+    int consumerIndex;
+
+    MpscLinkedArrayQueueConsumerFields(MpscLinkedArrayQueue.Chunk<T> chunk) {
+        super(chunk);
+        this.consumerChunk = chunk;
+    }
+}
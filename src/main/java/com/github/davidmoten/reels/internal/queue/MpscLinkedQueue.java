@@ -109,6 +109,37 @@ public class MpscLinkedQueue<T> implements SimplePlainQueue<T> {
         return true;
     }
 
+    /**
+     * Enqueues the values in iteration order with a single exchange on the
+     * producer node (a node is still allocated per value). The nodes are linked
+     * together before the exchange so the batch becomes visible to the consumer
+     * all at once.
+     * 
+     * @param values values to enqueue, not null and containing no nulls
+     * @return true
+     */
+    public boolean offerAll(Iterable<? extends T> values) {
+        LinkedQueueNode<T> first = null;
+        LinkedQueueNode<T> last = null;
+        for (T e : values) {
+            if (null == e) {
+                throw new NullPointerException("Null is not a valid element");
+            }
+            final LinkedQueueNode<T> node = new LinkedQueueNode<>(e);
+            if (last == null) {
+                first = node;
+            } else {
+                last.soNext(node);
+            }
+            last = node;
+        }
+        if (last != null) {
+            final LinkedQueueNode<T> prevProducerNode = xchgProducerNode(last);
+            prevProducerNode.soNext(first); // StoreStore
+        }
+        return true;
+    }
+
     @Override
     public void clear() {
         while (poll() != null && !isEmpty()) { } // NOPMD
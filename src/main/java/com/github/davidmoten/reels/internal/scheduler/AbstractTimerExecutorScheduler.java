@@ -0,0 +1,89 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.Worker;
+
+/**
+ * Scheduler that runs tasks on an ExecutorService and times delayed and
+ * periodic tasks with its own {@link HashedWheelTimer} (1ms ticks) which hands
+ * them to the ExecutorService when due. The timer (and its thread) is only
+ * created when the first delayed or periodic task is scheduled. Shutting down
+ * the scheduler shuts down the timer and the ExecutorService.
+ */
+abstract class AbstractTimerExecutorScheduler implements Scheduler {
+
+    private static final long TICK_MS = 1;
+
+    private final ExecutorService executor;
+    private final String timerThreadPrefix;
+    private final TimerExecutorWorker worker;
+    private volatile HashedWheelTimer timer;
+    private boolean shutdown; // guarded by this
+
+    AbstractTimerExecutorScheduler(ExecutorService executor, String timerThreadPrefix) {
+        this.executor = executor;
+        this.timerThreadPrefix = timerThreadPrefix;
+        this.worker = new TimerExecutorWorker(executor, this::timer);
+    }
+
+    private HashedWheelTimer timer() {
+        HashedWheelTimer t = timer;
+        if (t == null) {
+            synchronized (this) {
+                t = timer;
+                if (t == null) {
+                    t = new HashedWheelTimer(TICK_MS, TimeUnit.MILLISECONDS,
+                            SchedulerHelper.createThreadFactory(timerThreadPrefix));
+                    if (shutdown) {
+                        t.dispose();
+                    }
+                    timer = t;
+                }
+            }
+        }
+        return t;
+    }
+
+    // VisibleForTesting
+    boolean timerCreated() {
+        return timer != null;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new SchedulerWorker(worker);
+    }
+
+    @Override
+    public void shutdown() {
+        worker.dispose();
+        HashedWheelTimer t;
+        synchronized (this) {
+            shutdown = true;
+            t = timer;
+        }
+        if (t != null) {
+            t.dispose();
+        }
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Disposable schedule(Runnable run) {
+        return worker.schedule(run);
+    }
+
+    @Override
+    public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+        return worker.schedule(run, delay, unit);
+    }
+
+    @Override
+    public Disposable schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return worker.schedulePeriodically(run, initialDelay, period, unit);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.Properties;
+
+import com.github.davidmoten.reels.Scheduler;
+
+/**
+ * Resolves the scheduler returned by {@link Scheduler#defaultScheduler()} from
+ * system properties:
+ *
+ * <ul>
+ * <li>{@code reels.scheduler.default} is one of {@code forkJoin} (the
+ * default), {@code computationSticky}, {@code computationStealing},
+ * {@code io}, {@code virtual} or {@code single}</li>
+ * <li>{@code reels.forkjoin.parallelism} and {@code reels.forkjoin.async}
+ * apply to {@code forkJoin}. If either is set a dedicated ForkJoinPool is used
+ * (with the given parallelism, default number of processors, and async mode,
+ * default true) instead of {@code ForkJoinPool.commonPool()}.</li>
+ * </ul>
+ */
+public final class DefaultScheduler {
+
+    static final String KEY_SCHEDULER = "reels.scheduler.default";
+    static final String KEY_FORK_JOIN_PARALLELISM = "reels.forkjoin.parallelism";
+    static final String KEY_FORK_JOIN_ASYNC = "reels.forkjoin.async";
+
+    public static final Scheduler INSTANCE = fromProperties(System.getProperties());
+
+    private DefaultScheduler() {
+        // prevent instantiation
+    }
+
+    // VisibleForTesting
+    static Scheduler fromProperties(Properties p) {
+        String name = p.getProperty(KEY_SCHEDULER, "forkJoin");
+        switch (name) {
+        case "forkJoin":
+            return forkJoin(p);
+        case "computationSticky":
+            return Scheduler.computationSticky();
+        case "computationStealing":
+            return Scheduler.computationStealing();
+        case "io":
+            return Scheduler.io();
+        case "virtual":
+            return Scheduler.virtual();
+        case "single":
+            return Scheduler.single();
+        default:
+            throw new IllegalArgumentException("unknown value for " + KEY_SCHEDULER + ": " + name);
+        }
+    }
+
+    private static Scheduler forkJoin(Properties p) {
+        String parallelism = p.getProperty(KEY_FORK_JOIN_PARALLELISM);
+        String async = p.getProperty(KEY_FORK_JOIN_ASYNC);
+        if (parallelism == null && async == null) {
+            return SchedulerForkJoinPool.INSTANCE;
+        } else {
+            return new SchedulerForkJoinPool( //
+                    parallelism == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(parallelism), //
+                    async == null || Boolean.parseBoolean(async), //
+                    new PrefixedForkJoinWorkerThreadFactory("ReelsForkJoin"));
+        }
+    }
+}
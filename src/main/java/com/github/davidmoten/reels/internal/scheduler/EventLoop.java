@@ -0,0 +1,267 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveLinkedQueue;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveNode;
+
+/**
+ * A single thread that runs submitted tasks in order, an alternative to a
+ * {@link NewThreadWorker} (a one thread {@code ScheduledThreadPoolExecutor}
+ * whose queue takes a lock on every submission).
+ *
+ * <ul>
+ * <li>The thread is started by the first submission so that an event loop
+ * created during class initialisation (like the {@code single()} scheduler)
+ * costs no thread until it is used.</li>
+ * <li>Tasks are submitted through a lock-free MPSC queue. A submission
+ * allocates only the returned task.</li>
+ * <li>Delayed and periodic tasks come through the same queue and are then held
+ * in a heap that only the loop thread touches, so timing needs no extra
+ * thread. Due timers are run when the queue is empty and after every 64
+ * consecutive tasks so that a busy loop doesn't starve them.</li>
+ * <li>When there is nothing to do the thread polls its queue a few more times
+ * (see {@code reels.event.loop.spins}) before parking. A submitter only calls
+ * {@code LockSupport.unpark} if the thread has advertised that it is parking,
+ * so a busy loop receives no wakeups.</li>
+ * </ul>
+ */
+public final class EventLoop extends AbstractCanScheduleDisposable implements LoadReportingWorker {
+
+    // number of extra polls of an empty queue before parking (no spinning on a
+    // single processor because the submitter cannot run while we spin)
+    private static final int SPINS = Integer.getInteger("reels.event.loop.spins",
+            Runtime.getRuntime().availableProcessors() == 1 ? 0 : 100);
+
+    // the due timers are also checked after this many consecutive immediate tasks
+    // so that they still run when the queue never empties (a busy actor)
+    private static final int TIMER_CHECK_INTERVAL = 64;
+
+    private final MpscIntrusiveLinkedQueue<Task> queue = new MpscIntrusiveLinkedQueue<>();
+    // immediate tasks submitted and not yet finished or disposed
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger sleeping = new AtomicInteger(); // 1 = parked or about to park
+    private final Thread thread;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean disposed;
+
+    // accessed only by the loop thread
+    private final PriorityQueue<Task> timers = new PriorityQueue<>();
+    private long sequence;
+
+    public EventLoop(ThreadFactory threadFactory) {
+        this.thread = threadFactory.newThread(this::run);
+    }
+
+    /**
+     * Returns the number of immediate tasks submitted to this event loop that have
+     * not yet finished running.
+     *
+     * @return number of queued (or running) tasks
+     */
+    @Override
+    public int queued() {
+        return queued.get();
+    }
+
+    @Override
+    public boolean runsOnCurrentThread() {
+        return thread == Thread.currentThread();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        queued.incrementAndGet();
+        return submit(new Task(run, queued, 0, 0));
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+        return submit(new Task(run, null, System.nanoTime() + unit.toNanos(delay), 0));
+    }
+
+    @Override
+    protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return submit(new Task(run, null, System.nanoTime() + unit.toNanos(initialDelay),
+                Math.max(1, unit.toNanos(period))));
+    }
+
+    private Task submit(Task task) {
+        queue.offer(task);
+        if (!started.get() && !disposed && started.compareAndSet(false, true)) {
+            thread.start();
+        } else if (sleeping.get() == 1 && sleeping.compareAndSet(1, 0)) {
+            LockSupport.unpark(thread);
+        }
+        return task;
+    }
+
+    private void run() {
+        int spins = 0;
+        int tasks = 0;
+        while (!disposed) {
+            Task task = queue.poll();
+            if (task != null) {
+                if (task.queued != null) {
+                    task.runCounted();
+                } else if (!task.isDisposed()) {
+                    task.sequence = sequence++;
+                    timers.offer(task);
+                }
+                spins = 0;
+                if (++tasks == TIMER_CHECK_INTERVAL) {
+                    tasks = 0;
+                    runDueTimers();
+                }
+            } else {
+                tasks = 0;
+                long wait = runDueTimers();
+                if (wait == 0) {
+                    spins = 0;
+                } else if (spins < SPINS) {
+                    spins++;
+                } else {
+                    sleeping.set(1);
+                    // check again after advertising that we are parking so that a
+                    // task submitted concurrently is not missed
+                    if (queue.isEmpty() && !disposed) {
+                        if (wait < 0) {
+                            LockSupport.park(this);
+                        } else {
+                            LockSupport.parkNanos(this, wait);
+                        }
+                    }
+                    sleeping.set(0);
+                    spins = 0;
+                }
+            }
+        }
+        queue.clear();
+        timers.clear();
+    }
+
+    /**
+     * Runs the timed tasks that are due.
+     *
+     * @return 0 if a task was run, otherwise the nanos until the next task is due
+     *         or -1 if there are no timed tasks
+     */
+    private long runDueTimers() {
+        Task t = timers.peek();
+        if (t == null) {
+            return -1;
+        }
+        long now = System.nanoTime();
+        if (t.deadline - now > 0) {
+            return t.deadline - now;
+        }
+        while (t != null && t.deadline - now <= 0) {
+            timers.poll();
+            t.run();
+            if (t.period > 0 && !t.isDisposed()) {
+                // fixed rate
+                t.deadline += t.period;
+                t.sequence = sequence++;
+                timers.offer(t);
+            }
+            t = timers.peek();
+        }
+        return 0;
+    }
+
+    private static final class Task extends MpscIntrusiveNode implements Runnable, Disposable, Comparable<Task> {
+
+        private static final AtomicIntegerFieldUpdater<Task> DONE = AtomicIntegerFieldUpdater
+                .newUpdater(Task.class, "done");
+
+        private final Runnable run;
+        final AtomicInteger queued; // null if timed
+        final long period;
+        private volatile boolean disposed;
+        // set by whichever of runCounted and dispose happens first so that queued
+        // is decremented exactly once
+        private volatile int done;
+
+        // accessed only by the loop thread after submission
+        long deadline; // System.nanoTime() value, used only if timed
+        long sequence; // orders timed tasks with the same deadline
+
+        Task(Runnable run, AtomicInteger queued, long deadline, long period) {
+            this.run = run;
+            this.queued = queued;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        void runCounted() {
+            if (DONE.compareAndSet(this, 0, 1)) {
+                try {
+                    run();
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!disposed) {
+                try {
+                    run.run();
+                } catch (Throwable e) {
+                    // like ScheduledThreadPoolExecutor a periodic task is not run
+                    // again, and the loop keeps going, but the error is reported to
+                    // the thread's handler rather than lost
+                    disposed = true;
+                    reportError(e);
+                }
+            }
+        }
+
+        private static void reportError(Throwable e) {
+            Thread t = Thread.currentThread();
+            try {
+                t.getUncaughtExceptionHandler().uncaughtException(t, e);
+            } catch (Throwable e2) {
+                // the handler failed, don't let it stop the loop
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            if (queued != null && DONE.compareAndSet(this, 0, 1)) {
+                queued.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public int compareTo(Task o) {
+            int c = Long.signum(deadline - o.deadline);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.internal.Preconditions;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveLinkedQueue;
+import com.github.davidmoten.reels.internal.queue.MpscIntrusiveNode;
+import com.github.davidmoten.reels.internal.util.Util;
+
+/**
+ * A hashed timing wheel (after Varghese and Lauck, and the Netty class of the
+ * same name). Scheduling and cancelling a timeout are O(1) and allocate only the
+ * returned timeout object, in contrast to the O(log n) heap and the future per
+ * task of a {@code ScheduledThreadPoolExecutor}. The price is precision: a
+ * timeout fires on the first tick at or after its deadline.
+ *
+ * <p>
+ * A single thread advances the wheel one bucket per tick and hands expired
+ * tasks to the Executor they were scheduled with so that the timer thread never
+ * runs user code. Timeouts are passed to that thread through an MPSC queue and
+ * placed in their bucket on the next tick. A cancelled timeout is removed when
+ * its bucket is next visited. The thread parks when no timeouts are pending.
+ */
+public final class HashedWheelTimer implements Disposable {
+
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // limits the time spent moving new timeouts into the wheel per tick
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final MpscIntrusiveLinkedQueue<Timeout> incoming = new MpscIntrusiveLinkedQueue<>();
+    // number of timeouts scheduled and not yet expired or removed from the wheel
+    private final AtomicLong pending = new AtomicLong();
+    private final long startTime;
+    private final Thread thread;
+    private volatile boolean idle;
+    private volatile boolean disposed;
+
+    // accessed only by the timer thread
+    private long tick;
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, ThreadFactory threadFactory) {
+        this(tickDuration, unit, DEFAULT_WHEEL_SIZE, threadFactory);
+    }
+
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, ThreadFactory threadFactory) {
+        Preconditions.checkArgument(tickDuration > 0, "tickDuration must be > 0");
+        Preconditions.checkArgument(wheelSize > 0, "wheelSize must be > 0");
+        Preconditions.checkArgumentNonNull(threadFactory, "threadFactory");
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Util.roundToPowerOfTwo(wheelSize);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+        this.thread = threadFactory.newThread(this::run);
+        thread.start();
+    }
+
+    /**
+     * Submits {@code run} to {@code executor} once {@code delay} has elapsed.
+     *
+     * @param run      task
+     * @param delay    delay before submission
+     * @param unit     delay unit
+     * @param executor where the task runs
+     * @return disposable that cancels the task if it has not yet been submitted
+     */
+    public Disposable schedule(Runnable run, long delay, TimeUnit unit, Executor executor) {
+        return add(new Timeout(run, executor, deadline(delay, unit), 0));
+    }
+
+    /**
+     * Submits {@code run} to {@code executor} after {@code initialDelay} and then
+     * every {@code period} until disposed. Deadlines are computed from the
+     * previous deadline (fixed rate) rather than from when the task ran.
+     *
+     * @param run          task
+     * @param initialDelay delay before first submission
+     * @param period       time between submissions
+     * @param unit         time unit
+     * @param executor     where the task runs
+     * @return disposable that stops further submissions
+     */
+    public Disposable schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit,
+            Executor executor) {
+        Preconditions.checkArgument(period > 0, "period must be > 0");
+        return add(new Timeout(run, executor, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    /**
+     * Returns the number of timeouts that have been scheduled and not yet expired
+     * (or been removed after cancellation).
+     *
+     * @return number of pending timeouts
+     */
+    public long pending() {
+        return pending.get();
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private long deadline(long delay, TimeUnit unit) {
+        return saturatedAdd(System.nanoTime() - startTime, Math.max(0, unit.toNanos(delay)));
+    }
+
+    // a deadline beyond Long.MAX_VALUE nanos is treated as never due
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private Timeout add(Timeout timeout) {
+        if (disposed) {
+            timeout.dispose();
+            return timeout;
+        }
+        pending.incrementAndGet();
+        incoming.offer(timeout);
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+        return timeout;
+    }
+
+    private void run() {
+        while (!disposed) {
+            if (pending.get() == 0) {
+                idle = true;
+                // check again after advertising that we are idle so that a timeout
+                // added concurrently is not missed
+                if (pending.get() == 0 && !disposed) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                // the wheel is empty so no buckets are skipped by jumping forward
+                tick = Math.max(tick, (System.nanoTime() - startTime) / tickNanos);
+                continue;
+            }
+            long wait = (tick + 1) * tickNanos - (System.nanoTime() - startTime);
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            transferIncoming();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout t = incoming.poll();
+            if (t == null) {
+                return;
+            }
+            if (t.isDisposed()) {
+                pending.decrementAndGet();
+            } else {
+                // a deadline that has already passed goes in the current bucket
+                place(t, tick);
+            }
+        }
+    }
+
+    // fromTick is the first tick whose bucket has not been expired yet
+    private void place(Timeout t, long fromTick) {
+        long due = t.deadline / tickNanos;
+        long ticks = Math.max(due, fromTick);
+        t.remainingRounds = (ticks - fromTick) >> Long.numberOfTrailingZeros(wheel.length);
+        wheel[(int) (ticks & mask)].add(t);
+    }
+
+    private void expire(Bucket bucket) {
+        // detach the timeouts so that a periodic timeout that fire puts back in
+        // this bucket is not visited again in this tick
+        Timeout t = bucket.head;
+        bucket.head = null;
+        bucket.tail = null;
+        while (t != null) {
+            Timeout next = t.bucketNext;
+            if (t.isDisposed()) {
+                pending.decrementAndGet();
+            } else if (t.remainingRounds <= 0) {
+                fire(t);
+            } else {
+                t.remainingRounds--;
+                bucket.add(t);
+            }
+            t = next;
+        }
+    }
+
+    private void fire(Timeout t) {
+        try {
+            t.executor.execute(t);
+        } catch (RejectedExecutionException e) {
+            t.dispose();
+        }
+        if (t.period > 0 && !t.isDisposed()) {
+            t.deadline = saturatedAdd(t.deadline, t.period);
+            // the current bucket is being expired so a deadline that falls in this
+            // tick (a period under one tick or the timer running late) goes in the
+            // next bucket rather than waiting a full revolution
+            place(t, tick + 1);
+        } else {
+            pending.decrementAndGet();
+        }
+    }
+
+    private static final class Bucket {
+
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout t) {
+            t.bucketNext = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.bucketNext = t;
+            }
+            tail = t;
+        }
+    }
+
+    private static final class Timeout extends MpscIntrusiveNode implements Runnable, Disposable {
+
+        private final Runnable run;
+        final Executor executor;
+        final long period;
+        private volatile boolean disposed;
+
+        // accessed only by the timer thread
+        long deadline;
+        long remainingRounds;
+        Timeout bucketNext;
+
+        Timeout(Runnable run, Executor executor, long deadline, long period) {
+            this.run = run;
+            this.executor = executor;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (!disposed) {
+                run.run();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
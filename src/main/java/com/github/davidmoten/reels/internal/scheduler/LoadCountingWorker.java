@@ -0,0 +1,81 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.davidmoten.reels.Disposable;
+
+/**
+ * A single thread worker that counts the tasks submitted for immediate
+ * execution that have not yet finished (its load). Delayed and periodic tasks
+ * are not counted.
+ */
+public final class LoadCountingWorker extends NewThreadWorker implements LoadReportingWorker {
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public LoadCountingWorker(ThreadFactory threadFactory) {
+        super(threadFactory);
+    }
+
+    /**
+     * Returns the number of immediate tasks submitted to this worker that have not
+     * yet finished running.
+     * 
+     * @return number of queued (or running) tasks
+     */
+    @Override
+    public int queued() {
+        return queued.get();
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        queued.incrementAndGet();
+        CountedTask task = new CountedTask(run, queued);
+        task.future = super._schedule(task);
+        return task;
+    }
+
+    // the flag is set by whichever of run and dispose happens first so that the
+    // count is decremented exactly once
+    private static final class CountedTask extends AtomicBoolean implements Runnable, Disposable {
+
+        private static final long serialVersionUID = 3367466150375391553L;
+
+        private final Runnable run;
+        private final AtomicInteger queued;
+        Disposable future;
+
+        CountedTask(Runnable run, AtomicInteger queued) {
+            this.run = run;
+            this.queued = queued;
+        }
+
+        @Override
+        public void run() {
+            if (compareAndSet(false, true)) {
+                try {
+                    run.run();
+                } finally {
+                    queued.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            future.dispose();
+            if (compareAndSet(false, true)) {
+                queued.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return future.isDisposed();
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import com.github.davidmoten.reels.Worker;
+
+/**
+ * A single thread Worker that reports its load for placement decisions.
+ */
+interface LoadReportingWorker extends Worker {
+
+    /**
+     * Returns the number of immediate tasks submitted to this worker that have not
+     * yet finished running.
+     * 
+     * @return number of queued (or running) tasks
+     */
+    int queued();
+}
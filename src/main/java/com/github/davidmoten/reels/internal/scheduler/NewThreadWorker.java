@@ -6,10 +6,24 @@ import java.util.concurrent.ThreadFactory;
 
 public class NewThreadWorker extends ExecutorWorker {
 
+    private volatile Thread thread; // set once the executor's thread has started
+
     public NewThreadWorker(ThreadFactory threadFactory) {
-        super(createExecutor(threadFactory));
+        this(createExecutor(threadFactory));
+    }
+
+    private NewThreadWorker(ScheduledExecutorService executor) {
+        super(executor);
+        // record the executor's only thread so that runsOnCurrentThread can return
+        // true
+        executor.execute(() -> thread = Thread.currentThread());
     }
-    
+
+    @Override
+    public boolean runsOnCurrentThread() {
+        return thread == Thread.currentThread();
+    }
+
     private static ScheduledExecutorService createExecutor(ThreadFactory factory) {
         final ScheduledThreadPoolExecutor exec = new ScheduledThreadPoolExecutor(1, factory);
         exec.setRemoveOnCancelPolicy(true);
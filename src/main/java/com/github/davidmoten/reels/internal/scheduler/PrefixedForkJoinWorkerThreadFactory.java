@@ -0,0 +1,24 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class PrefixedForkJoinWorkerThreadFactory implements ForkJoinWorkerThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    public PrefixedForkJoinWorkerThreadFactory(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName(prefix + "-" + count.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    }
+}
@@ -0,0 +1,295 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.Worker;
+import com.github.davidmoten.reels.internal.Preconditions;
+import com.github.davidmoten.reels.internal.util.FastRandomInt;
+
+/**
+ * A pool of threads each with its own run queue. A Worker (and so an actor) has
+ * a home thread and its tasks are queued there, so an actor normally stays on
+ * one thread. A thread that has nothing to do steals the newest waiting task
+ * (the tail) from another thread's queue, so that thread keeps the tasks it
+ * will run next, and becomes the home of the stolen task's Worker. An actor
+ * only has one drain task queued or running at a time so stealing that
+ * task moves the whole actor (never individual messages) and its messages are
+ * still processed by one thread at a time.
+ *
+ * <p>
+ * Delayed and periodic tasks are timed by a shared single thread and then
+ * queued on the home thread of the Worker when due.
+ */
+public final class SchedulerComputationStealing extends AbstractCanScheduleDisposable implements Scheduler {
+
+    public static final SchedulerComputationStealing INSTANCE = new SchedulerComputationStealing(
+            Integer.getInteger("reels.computation.pool.size", Runtime.getRuntime().availableProcessors()));
+
+    // an idle thread also wakes this often to look for work to steal in case it
+    // missed a signal
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Runner[] runners;
+    private final ScheduledExecutorService timer;
+    private final AtomicInteger counter = new AtomicInteger();
+    private volatile boolean disposed;
+
+    public SchedulerComputationStealing(int size) {
+        Preconditions.checkArgument(size > 0, "size must be > 0");
+        ThreadFactory factory = SchedulerHelper.createThreadFactory("ReelsStealing");
+        this.timer = Executors.newSingleThreadScheduledExecutor(SchedulerHelper.createThreadFactory("ReelsStealingTimer"));
+        this.runners = new Runner[size];
+        for (int i = 0; i < size; i++) {
+            runners[i] = new Runner(this, i);
+        }
+        for (Runner r : runners) {
+            Thread t = factory.newThread(r);
+            r.thread = t;
+            t.start();
+        }
+    }
+
+    @Override
+    public Worker createWorker() {
+        if (disposed) {
+            return WorkerDisposed.INSTANCE;
+        }
+        return new StealingWorker(this, nextIndex());
+    }
+
+    @Override
+    public void shutdown() {
+        disposed = true;
+        timer.shutdownNow();
+        for (Runner r : runners) {
+            LockSupport.unpark(r.thread);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        shutdown();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        Task task = new Task(run, null);
+        enqueue(nextIndex(), task);
+        return task;
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+        Task task = new Task(run, null);
+        task.future = timer.schedule(() -> enqueue(nextIndex(), task), delay, unit);
+        return task;
+    }
+
+    @Override
+    protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return new FutureTask(
+                timer.scheduleAtFixedRate(() -> enqueue(nextIndex(), new Task(run, null)), initialDelay, period, unit));
+    }
+
+    private int nextIndex() {
+        return (counter.getAndIncrement() & Integer.MAX_VALUE) % runners.length;
+    }
+
+    private void enqueue(int index, Task task) {
+        if (disposed) {
+            return;
+        }
+        Runner r = runners[index];
+        boolean wasEmpty = r.queue.isEmpty();
+        r.queue.offerLast(task);
+        if (!r.wake() && !wasEmpty) {
+            // the home thread is busy and now has a backlog, give an idle thread the
+            // chance to steal
+            wakeIdle(index);
+        }
+    }
+
+    private void wakeIdle(int except) {
+        for (int i = 0; i < runners.length; i++) {
+            if (i != except && runners[i].wake()) {
+                return;
+            }
+        }
+    }
+
+    // VisibleForTesting
+    int queued(int index) {
+        return runners[index].queue.size();
+    }
+
+    private static final class Runner implements Runnable {
+
+        private final SchedulerComputationStealing scheduler;
+        private final int index;
+        private final FastRandomInt random = new FastRandomInt();
+        final ConcurrentLinkedDeque<Task> queue = new ConcurrentLinkedDeque<>();
+        final AtomicInteger idle = new AtomicInteger(); // 1 = parked or about to park
+        volatile Thread thread;
+
+        Runner(SchedulerComputationStealing scheduler, int index) {
+            this.scheduler = scheduler;
+            this.index = index;
+        }
+
+        /**
+         * Wakes this runner if it is idle.
+         *
+         * @return true if and only if the runner was idle
+         */
+        boolean wake() {
+            if (idle.get() == 1 && idle.compareAndSet(1, 0)) {
+                LockSupport.unpark(thread);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!scheduler.disposed) {
+                Task task = queue.pollFirst();
+                if (task == null) {
+                    task = steal();
+                }
+                if (task != null) {
+                    task.run();
+                } else {
+                    idle.set(1);
+                    // check again after advertising that we are idle so that a task
+                    // enqueued concurrently is not missed
+                    if (queue.isEmpty() && !scheduler.disposed) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    idle.set(0);
+                }
+            }
+        }
+
+        private Task steal() {
+            Runner[] runners = scheduler.runners;
+            int n = runners.length;
+            if (n == 1) {
+                return null;
+            }
+            int start = random.nextInt(n);
+            for (int i = 0; i < n; i++) {
+                Runner victim = runners[(start + i) % n];
+                if (victim != this) {
+                    // take from the tail so the victim keeps the tasks it will run next
+                    Task task = victim.queue.pollLast();
+                    if (task != null) {
+                        StealingWorker w = task.worker;
+                        if (w != null) {
+                            // migrate the whole actor
+                            w.home = index;
+                        }
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Task implements Runnable, Disposable {
+
+        private final Runnable run;
+        final StealingWorker worker; // nullable
+        volatile Future<?> future; // nullable, set for delayed tasks
+        private volatile boolean disposed;
+
+        Task(Runnable run, StealingWorker worker) {
+            this.run = run;
+            this.worker = worker;
+        }
+
+        @Override
+        public void run() {
+            if (!disposed && (worker == null || !worker.isDisposed())) {
+                run.run();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    private static final class StealingWorker extends AbstractCanScheduleDisposable implements Worker {
+
+        private final SchedulerComputationStealing scheduler;
+        volatile int home; // index of the thread this worker's tasks are queued on
+        private volatile boolean disposed;
+
+        StealingWorker(SchedulerComputationStealing scheduler, int home) {
+            this.scheduler = scheduler;
+            this.home = home;
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run) {
+            Task task = new Task(run, this);
+            scheduler.enqueue(home, task);
+            return task;
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+            Task task = new Task(run, this);
+            task.future = scheduler.timer.schedule(() -> scheduler.enqueue(home, task), delay, unit);
+            return task;
+        }
+
+        @Override
+        protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            return new FutureTask(scheduler.timer.scheduleAtFixedRate(() -> scheduler.enqueue(home, new Task(run, this)),
+                    initialDelay, period, unit));
+        }
+
+        @Override
+        public boolean runsOnCurrentThread() {
+            return scheduler.runners[home].thread == Thread.currentThread();
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed || scheduler.disposed;
+        }
+    }
+
+}
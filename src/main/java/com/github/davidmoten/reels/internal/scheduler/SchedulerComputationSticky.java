@@ -3,29 +3,73 @@ package com.github.davidmoten.reels.internal.scheduler;
 import java.util.List;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Placement;
 import com.github.davidmoten.reels.Scheduler;
 import com.github.davidmoten.reels.Worker;
+import com.github.davidmoten.reels.internal.Preconditions;
 import com.github.davidmoten.reels.internal.util.FastRandomInt;
 
 public final class SchedulerComputationSticky extends AbstractCanScheduleDisposable implements Scheduler {
 
     public static final SchedulerComputationSticky INSTANCE = new SchedulerComputationSticky();
 
-    private final List<Worker> workers;
+    private final List<LoadReportingWorker> workers;
+
+    private final Placement placement;
+
+    private final boolean rebalance;
 
     private final FastRandomInt random = new FastRandomInt();
 
+    private final AtomicInteger counter = new AtomicInteger();
+
     // VisibleForTesting
     SchedulerComputationSticky() {
+        this(placement(System.getProperty("reels.computation.sticky.placement")),
+                Boolean.getBoolean("reels.computation.sticky.rebalance"));
+    }
+
+    // this runs during class initialisation (INSTANCE) so a bad value must not
+    // throw, otherwise the class would be unusable for the life of the JVM
+    // VisibleForTesting
+    static Placement placement(String value) {
+        if (value != null) {
+            for (Placement p : Placement.values()) {
+                if (p.name().equalsIgnoreCase(value.trim())) {
+                    return p;
+                }
+            }
+        }
+        return Placement.RANDOM;
+    }
+
+    public SchedulerComputationSticky(Placement placement, boolean rebalance) {
+        this(placement, rebalance, true);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param placement how a worker's thread is chosen from the pool
+     * @param rebalance if true an actor may move to a less loaded thread when it
+     *                  goes from idle to busy
+     * @param eventLoop if true the threads are {@link EventLoop}s otherwise they
+     *                  are single thread {@code ScheduledThreadPoolExecutor}s
+     */
+    public SchedulerComputationSticky(Placement placement, boolean rebalance, boolean eventLoop) {
+        Preconditions.checkArgumentNonNull(placement, "placement");
+        this.placement = placement;
+        this.rebalance = rebalance;
         int size = Integer.getInteger("reels.computation.pool.size", Runtime.getRuntime().availableProcessors());
         ThreadFactory factory = SchedulerHelper.createThreadFactory("ReelsComputation");
         workers = IntStream //
                 .range(0, size) //
-                .mapToObj(n -> new NewThreadWorker(factory)) //
+                .<LoadReportingWorker>mapToObj(n -> eventLoop ? new EventLoop(factory) : new LoadCountingWorker(factory)) //
                 .collect(Collectors.toList());
     }
 
@@ -34,7 +78,11 @@ public final class SchedulerComputationSticky extends AbstractCanScheduleDisposa
         if (workers.isEmpty()) {
             return WorkerDisposed.INSTANCE;
         }
-        return new SchedulerWorker(workers.get(nextIndex()));
+        if (rebalance) {
+            return new RebalancingWorker(this, choose());
+        } else {
+            return new SchedulerWorker(choose());
+        }
     }
 
     @Override
@@ -47,23 +95,50 @@ public final class SchedulerComputationSticky extends AbstractCanScheduleDisposa
 
     @Override
     public Disposable _schedule(Runnable run) {
-        return workers.get(nextIndex()).schedule(run);
+        return choose().schedule(run);
     }
 
     @Override
     public Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
-        return workers.get(nextIndex()).schedule(run, delay, unit);
+        return choose().schedule(run, delay, unit);
     }
 
     @Override
     public Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
-        return workers.get(nextIndex()).schedulePeriodically(run, initialDelay, period, unit);
+        return choose().schedulePeriodically(run, initialDelay, period, unit);
     }
 
-    private int nextIndex() {
-        return random.nextInt(workers.size());
+    // VisibleForTesting
+    LoadReportingWorker choose() {
+        List<LoadReportingWorker> w = workers;
+        int size = w.size();
+        switch (placement) {
+        case ROUND_ROBIN:
+            return w.get((counter.getAndIncrement() & Integer.MAX_VALUE) % size);
+        case LEAST_LOADED:
+            // start the scan at a rotating position so that ties are spread
+            int start = (counter.getAndIncrement() & Integer.MAX_VALUE) % size;
+            LoadReportingWorker best = w.get(start);
+            int min = best.queued();
+            for (int i = 1; i < size && min > 0; i++) {
+                LoadReportingWorker x = w.get((start + i) % size);
+                int q = x.queued();
+                if (q < min) {
+                    best = x;
+                    min = q;
+                }
+            }
+            return best;
+        case POWER_OF_TWO_CHOICES:
+            LoadReportingWorker a = w.get(random.nextInt(size));
+            LoadReportingWorker b = w.get(random.nextInt(size));
+            return b.queued() < a.queued() ? b : a;
+        default:
+            return w.get(random.nextInt(size));
+        }
     }
 
+    @Deprecated
     @Override
     public boolean requiresDrainSynchronization() {
         return false;
@@ -79,4 +154,62 @@ public final class SchedulerComputationSticky extends AbstractCanScheduleDisposa
         return workers.isEmpty();
     }
 
+    /**
+     * Sticks to a thread but each time a task is submitted for immediate execution
+     * (for an actor that is when it goes from idle to busy) it moves to a thread
+     * chosen by the placement strategy if that thread has fewer queued tasks than
+     * the current one. Moving is safe because an actor only submits a new drain
+     * task when it has no other drain task queued or running.
+     */
+    private static final class RebalancingWorker extends AbstractCanScheduleDisposable implements Worker {
+
+        private final SchedulerComputationSticky scheduler;
+        private volatile LoadReportingWorker worker;
+        private volatile boolean disposed;
+
+        RebalancingWorker(SchedulerComputationSticky scheduler, LoadReportingWorker worker) {
+            this.scheduler = scheduler;
+            this.worker = worker;
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run) {
+            LoadReportingWorker w = worker;
+            int q = w.queued();
+            if (q > 0 && !scheduler.workers.isEmpty()) {
+                LoadReportingWorker candidate = scheduler.choose();
+                if (candidate.queued() < q) {
+                    w = candidate;
+                    worker = w;
+                }
+            }
+            return w.schedule(run);
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+            return worker.schedule(run, delay, unit);
+        }
+
+        @Override
+        protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            return worker.schedulePeriodically(run, initialDelay, period, unit);
+        }
+
+        @Override
+        public boolean runsOnCurrentThread() {
+            return worker.runsOnCurrentThread();
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
 }
@@ -35,6 +35,7 @@ public enum SchedulerDoNothing implements Scheduler {
         // do nothing
     }
     
+    @Deprecated
     @Override
     public boolean requiresDrainSynchronization() {
         return false;
@@ -0,0 +1,58 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.Worker;
+
+/**
+ * Scheduler that runs all tasks on one {@link EventLoop} thread.
+ */
+public final class SchedulerEventLoop extends AbstractCanScheduleDisposable implements Scheduler {
+
+    private final EventLoop loop;
+
+    public SchedulerEventLoop(ThreadFactory threadFactory) {
+        this.loop = new EventLoop(threadFactory);
+    }
+
+    @Override
+    public Worker createWorker() {
+        if (loop.isDisposed()) {
+            return WorkerDisposed.INSTANCE;
+        }
+        return new SchedulerWorker(loop);
+    }
+
+    @Override
+    public void shutdown() {
+        loop.dispose();
+    }
+
+    @Override
+    public void dispose() {
+        shutdown();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return loop.isDisposed();
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        return loop.schedule(run);
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+        return loop.schedule(run, delay, unit);
+    }
+
+    @Override
+    protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return loop.schedulePeriodically(run, initialDelay, period, unit);
+    }
+}
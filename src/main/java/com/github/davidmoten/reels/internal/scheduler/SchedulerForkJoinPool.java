@@ -1,14 +1,41 @@
 package com.github.davidmoten.reels.internal.scheduler;
 
-import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
 
-public final class SchedulerForkJoinPool extends SchedulerFromExecutor {
+import com.github.davidmoten.reels.internal.Preconditions;
+
+/**
+ * Scheduler backed by a ForkJoinPool. Delayed and periodic tasks are timed by a
+ * {@link HashedWheelTimer} and run on the pool when due. Shutting down the
+ * common pool instance has no effect on the common pool itself.
+ */
+public final class SchedulerForkJoinPool extends AbstractTimerExecutorScheduler {
 
     public static final SchedulerForkJoinPool INSTANCE = new SchedulerForkJoinPool();
 
     private SchedulerForkJoinPool() {
-        super(new SplitResponsibilityScheduledExecutorService(ForkJoinPool.commonPool(),
-                Executors.newSingleThreadScheduledExecutor()), true);
+        super(ForkJoinPool.commonPool(), "ReelsForkJoinTimer");
+    }
+
+    /**
+     * Creates a scheduler backed by its own ForkJoinPool (not the common pool) so
+     * that actors don't compete with parallel streams and CompletableFuture
+     * callbacks. Shutting down the scheduler shuts down the pool.
+     * 
+     * @param parallelism   number of threads in the pool
+     * @param asyncMode     if true the pool processes tasks that are never joined
+     *                      (like actor drains) in FIFO order
+     * @param threadFactory creates the threads of the pool
+     */
+    public SchedulerForkJoinPool(int parallelism, boolean asyncMode, ForkJoinWorkerThreadFactory threadFactory) {
+        super(new ForkJoinPool(checkParallelism(parallelism),
+                Preconditions.checkArgumentNonNull(threadFactory, "threadFactory"), null, asyncMode),
+                "ReelsForkJoinTimer");
+    }
+
+    private static int checkParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be > 0");
+        return parallelism;
     }
 }
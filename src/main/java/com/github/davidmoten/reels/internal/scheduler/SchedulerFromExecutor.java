@@ -47,6 +47,7 @@ public class SchedulerFromExecutor implements Scheduler {
         return worker.schedulePeriodically(run, initialDelay, period, unit);
     }
 
+    @Deprecated
     @Override
     public boolean requiresDrainSynchronization() {
         return requiresSerialization;
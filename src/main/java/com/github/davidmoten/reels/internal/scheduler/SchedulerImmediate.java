@@ -48,6 +48,7 @@ public class SchedulerImmediate implements Scheduler {
         throw new UnsupportedOperationException("immediate scheduler does not support periodic scheduling");
     }
 
+    @Deprecated
     @Override
     public boolean requiresDrainSynchronization() {
         return false;
@@ -45,7 +45,7 @@ public final class SchedulerIo extends AbstractCanScheduleDisposable implements
      * The name of the system property for setting the keep-alive time (in seconds)
      * for this Scheduler workers.
      */
-    private static final String KEY_KEEP_ALIVE_TIME = "reels.io.keep.alive.time.seconds";
+    static final String KEY_KEEP_ALIVE_TIME = "reels.io.keep.alive.time.seconds";
     public static final long KEEP_ALIVE_TIME_DEFAULT = 60;
     private static final TimeUnit KEEP_ALIVE_UNIT = TimeUnit.SECONDS;
     private static final long KEEP_ALIVE_TIME = Long.getLong(KEY_KEEP_ALIVE_TIME, KEEP_ALIVE_TIME_DEFAULT);
@@ -187,6 +187,9 @@ public final class SchedulerIo extends AbstractCanScheduleDisposable implements
     }
 
     static final class EventLoopWorker extends AbstractCanScheduleDisposable implements Worker {
+        // only delayed and periodic tasks that have not finished are tracked so that
+        // they can be cancelled on dispose. Immediate tasks (an actor drain per idle
+        // to busy transition) are never added, they check for disposal when run.
         private final CompositeDisposable tasks;
         private final CachedWorkerPool pool;
         private final ThreadWorker threadWorker;
@@ -215,23 +218,96 @@ public final class SchedulerIo extends AbstractCanScheduleDisposable implements
 
         @Override
         public Disposable _schedule(Runnable run) {
-            Disposable d = threadWorker.schedule(run);
-            tasks.add(d);
-            return d;
+            // the thread worker may be reused by another EventLoopWorker after this one
+            // is disposed so don't run tasks queued before disposal
+            return threadWorker.schedule(() -> {
+                if (!once.get()) {
+                    run.run();
+                }
+            });
         }
 
         @Override
         public Disposable _schedule(Runnable action, long delayTime, TimeUnit unit) {
-            Disposable d = threadWorker.schedule(action, delayTime, unit);
-            tasks.add(d);
-            return d;
+            TrackedTask task = new TrackedTask(action, tasks, false);
+            if (tasks.add(task)) {
+                task.setFuture(threadWorker.schedule(task, delayTime, unit));
+            }
+            return task;
         }
 
         @Override
         public Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
-            Disposable d = threadWorker.schedulePeriodically(run, initialDelay, period, unit);
-            tasks.add(d);
-            return d;
+            TrackedTask task = new TrackedTask(run, tasks, true);
+            if (tasks.add(task)) {
+                task.setFuture(threadWorker.schedulePeriodically(task, initialDelay, period, unit));
+            }
+            return task;
+        }
+
+        // VisibleForTesting
+        int tracked() {
+            return tasks.size();
+        }
+    }
+
+    /**
+     * A delayed or periodic task that is held by its worker's
+     * {@link CompositeDisposable} until it has run (delayed) or is disposed so
+     * that it can be cancelled when the worker is disposed.
+     */
+    static final class TrackedTask extends AtomicReference<Disposable> implements Runnable, Disposable {
+
+        private static final long serialVersionUID = 1811839108042568751L;
+
+        private final Runnable run;
+        private final CompositeDisposable parent;
+        private final boolean periodic;
+        private volatile boolean disposed;
+
+        TrackedTask(Runnable run, CompositeDisposable parent, boolean periodic) {
+            this.run = run;
+            this.parent = parent;
+            this.periodic = periodic;
+        }
+
+        void setFuture(Disposable future) {
+            if (!compareAndSet(null, future)) {
+                // disposed before the future was set
+                future.dispose();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (disposed) {
+                return;
+            }
+            try {
+                run.run();
+            } finally {
+                if (!periodic) {
+                    disposed = true;
+                    parent.delete(this);
+                }
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                parent.delete(this);
+            }
+            Disposable future = getAndSet(Disposable.disposed());
+            if (future != null) {
+                future.dispose();
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
         }
     }
 
@@ -286,6 +362,7 @@ public final class SchedulerIo extends AbstractCanScheduleDisposable implements
         return new CompositeDisposable(d, w);
     }
 
+    @Deprecated
     @Override
     public boolean requiresDrainSynchronization() {
         return false;
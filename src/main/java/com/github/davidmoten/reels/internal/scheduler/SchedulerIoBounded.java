@@ -0,0 +1,63 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.github.davidmoten.reels.internal.Preconditions;
+
+/**
+ * Scheduler for blocking work that never uses more than {@code maxThreads}
+ * threads. Actors share the pool and when all threads are busy their drains
+ * wait in a single FIFO queue so they get threads in the order they became
+ * ready. Threads are created on demand and a thread that has been idle for the
+ * keep-alive time ({@code reels.io.keep.alive.time.seconds}, default 60s, as
+ * for {@link SchedulerIo}) is evicted.
+ */
+public final class SchedulerIoBounded extends AbstractTimerExecutorScheduler {
+
+    private final ThreadPoolExecutor executor;
+
+    public SchedulerIoBounded(int maxThreads) {
+        this(maxThreads, new LinkedBlockingQueue<>());
+    }
+
+    // VisibleForTesting
+    SchedulerIoBounded(int maxThreads, BlockingQueue<Runnable> queue) {
+        this(createExecutor(maxThreads, queue));
+    }
+
+    private SchedulerIoBounded(ThreadPoolExecutor executor) {
+        super(executor, "ReelsIoBoundedTimer");
+        this.executor = executor;
+    }
+
+    private static ThreadPoolExecutor createExecutor(int maxThreads, BlockingQueue<Runnable> queue) {
+        Preconditions.checkArgument(maxThreads > 0, "maxThreads must be > 0");
+        // String and long constants are inlined so SchedulerIo is not initialized
+        long keepAliveSeconds = Long.getLong(SchedulerIo.KEY_KEEP_ALIVE_TIME, SchedulerIo.KEEP_ALIVE_TIME_DEFAULT);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, keepAliveSeconds,
+                TimeUnit.SECONDS, queue, SchedulerHelper.createThreadFactory("ReelsIoBounded"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the number of threads currently in the pool.
+     * 
+     * @return number of threads in the pool
+     */
+    public int size() {
+        return executor.getPoolSize();
+    }
+
+    /**
+     * Returns the number of tasks (actor drains) waiting for a thread.
+     * 
+     * @return number of queued tasks
+     */
+    public int queued() {
+        return executor.getQueue().size();
+    }
+}
@@ -0,0 +1,276 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.PriorityScheduler;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.Worker;
+import com.github.davidmoten.reels.internal.Preconditions;
+
+/**
+ * A pool of threads shared by actors of different priorities. Each task (an
+ * actor drain for instance) is given a deadline when it is submitted, being the
+ * submission time less {@code priority} multiplied by the aging interval, and
+ * the waiting task with the earliest deadline runs next. So a task of higher
+ * priority overtakes waiting tasks of lower priority, but a low priority task
+ * that has waited for the aging interval per priority level of difference is
+ * run ahead of newly submitted higher priority tasks (no starvation).
+ *
+ * <p>
+ * The scheduler itself submits tasks at priority 0. Use {@link #priority(int)}
+ * to get a view of the pool that submits tasks at another priority. Delayed
+ * and periodic tasks are timed by a shared single thread and then queued with
+ * a deadline based on when they became due.
+ */
+public final class SchedulerPriority extends AbstractCanScheduleDisposable implements PriorityScheduler {
+
+    private final long agingNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // guarded by lock
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    private long sequence;
+
+    private final ScheduledExecutorService timer;
+    private final Scheduler defaultPriority;
+    private volatile boolean disposed;
+
+    public SchedulerPriority(int size, long aging, TimeUnit unit) {
+        Preconditions.checkArgument(size > 0, "size must be > 0");
+        Preconditions.checkArgument(aging > 0, "aging must be > 0");
+        Preconditions.checkArgumentNonNull(unit, "unit");
+        this.agingNanos = unit.toNanos(aging);
+        this.timer = Executors
+                .newSingleThreadScheduledExecutor(SchedulerHelper.createThreadFactory("ReelsPriorityTimer"));
+        this.defaultPriority = priority(0);
+        ThreadFactory factory = SchedulerHelper.createThreadFactory("ReelsPriority");
+        for (int i = 0; i < size; i++) {
+            factory.newThread(this::run).start();
+        }
+    }
+
+    @Override
+    public Scheduler priority(int priority) {
+        return new PriorityView(this, priority);
+    }
+
+    @Override
+    public Worker createWorker() {
+        return defaultPriority.createWorker();
+    }
+
+    @Override
+    public void shutdown() {
+        disposed = true;
+        timer.shutdownNow();
+        lock.lock();
+        try {
+            queue.clear();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        shutdown();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        return defaultPriority.schedule(run);
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+        return defaultPriority.schedule(run, delay, unit);
+    }
+
+    @Override
+    protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return defaultPriority.schedulePeriodically(run, initialDelay, period, unit);
+    }
+
+    // VisibleForTesting
+    int queued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Task enqueue(Task task, int priority) {
+        long deadline = System.nanoTime() - advance(priority);
+        lock.lock();
+        try {
+            if (disposed) {
+                task.dispose();
+            } else {
+                task.deadline = deadline;
+                task.sequence = sequence++;
+                queue.offer(task);
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return task;
+    }
+
+    // the amount a task's deadline is brought forward by its priority, capped so
+    // that deadline comparisons cannot overflow
+    private long advance(int priority) {
+        long max = Long.MAX_VALUE / 4 / agingNanos;
+        return Math.max(-max, Math.min(max, priority)) * agingNanos;
+    }
+
+    private Task take() throws InterruptedException {
+        lock.lock();
+        try {
+            Task task;
+            while ((task = queue.poll()) == null && !disposed) {
+                notEmpty.await();
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (!disposed) {
+            Task task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task != null) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    // like ThreadPoolExecutor the error is not propagated but unlike
+                    // it the pool thread keeps running
+                }
+            }
+        }
+    }
+
+    private static final class Task implements Runnable, Disposable, Comparable<Task> {
+
+        private final Runnable run;
+        private final Disposable parent;
+        volatile Future<?> future; // nullable, set for delayed tasks
+        private volatile boolean disposed;
+
+        // guarded by the scheduler lock
+        long deadline;
+        long sequence;
+
+        Task(Runnable run, Disposable parent) {
+            this.run = run;
+            this.parent = parent;
+        }
+
+        @Override
+        public void run() {
+            if (!disposed && !parent.isDisposed()) {
+                run.run();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public int compareTo(Task o) {
+            // overflow-safe comparison of nanoTime based values
+            int c = Long.signum(deadline - o.deadline);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    /**
+     * Submits tasks to the pool with a fixed priority. Also used as the Worker
+     * for an actor, in which case disposal only affects that actor's tasks.
+     */
+    private static final class PriorityView extends AbstractCanScheduleDisposable implements Scheduler, Worker {
+
+        final SchedulerPriority scheduler;
+        final int priority;
+        private volatile boolean disposed;
+
+        PriorityView(SchedulerPriority scheduler, int priority) {
+            this.scheduler = scheduler;
+            this.priority = priority;
+        }
+
+        @Override
+        public Worker createWorker() {
+            if (scheduler.disposed) {
+                return WorkerDisposed.INSTANCE;
+            }
+            return new PriorityView(scheduler, priority);
+        }
+
+        @Override
+        public void shutdown() {
+            scheduler.shutdown();
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run) {
+            return scheduler.enqueue(new Task(run, this), priority);
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+            Task task = new Task(run, this);
+            task.future = scheduler.timer.schedule(() -> scheduler.enqueue(task, priority), delay, unit);
+            return task;
+        }
+
+        @Override
+        protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            return new FutureTask(scheduler.timer.scheduleAtFixedRate(
+                    () -> scheduler.enqueue(new Task(run, this), priority), initialDelay, period, unit));
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed || scheduler.disposed;
+        }
+    }
+}
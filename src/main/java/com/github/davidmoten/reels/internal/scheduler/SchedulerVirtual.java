@@ -0,0 +1,161 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.Worker;
+
+/**
+ * Scheduler that runs each task (an actor drain for instance) on a new virtual
+ * thread when running on Java 21+ so that blocking in an actor does not tie up
+ * a platform thread. On earlier Java versions a cached pool of platform threads
+ * is used instead (see {@link #isVirtual()}). Delayed and periodic tasks are
+ * timed by a single shared thread and handed to the executor when due so that
+ * they never block the timer.
+ */
+public final class SchedulerVirtual extends AbstractCanScheduleDisposable implements Scheduler {
+
+    public static final SchedulerVirtual INSTANCE = new SchedulerVirtual();
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private volatile boolean disposed;
+
+    public SchedulerVirtual() {
+        this.executor = VirtualThreads.newExecutor("ReelsVirtual");
+        this.timer = Executors
+                .newSingleThreadScheduledExecutor(SchedulerHelper.createThreadFactory("ReelsVirtualTimer"));
+    }
+
+    /**
+     * Returns true if and only if tasks are run on virtual threads (Java 21+).
+     *
+     * @return true if tasks run on virtual threads
+     */
+    public static boolean isVirtual() {
+        return VirtualThreads.SUPPORTED;
+    }
+
+    @Override
+    public Worker createWorker() {
+        if (disposed) {
+            return WorkerDisposed.INSTANCE;
+        }
+        return new VirtualWorker(this);
+    }
+
+    @Override
+    public void shutdown() {
+        disposed = true;
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void dispose() {
+        shutdown();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        return execute(new Task(run, this));
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+        Task task = new Task(run, this);
+        return new FutureTask(timer.schedule(() -> execute(task), delay, unit));
+    }
+
+    @Override
+    protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return new FutureTask(
+                timer.scheduleAtFixedRate(() -> execute(new Task(run, this)), initialDelay, period, unit));
+    }
+
+    private Task execute(Task task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // shutdown
+            task.dispose();
+        }
+        return task;
+    }
+
+    private static final class Task implements Runnable, Disposable {
+
+        private final Runnable run;
+        private final Disposable parent;
+        private volatile boolean disposed;
+
+        Task(Runnable run, Disposable parent) {
+            this.run = run;
+            this.parent = parent;
+        }
+
+        @Override
+        public void run() {
+            if (!disposed && !parent.isDisposed()) {
+                run.run();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    private static final class VirtualWorker extends AbstractCanScheduleDisposable implements Worker {
+
+        private final SchedulerVirtual scheduler;
+        private volatile boolean disposed;
+
+        VirtualWorker(SchedulerVirtual scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run) {
+            return scheduler.execute(new Task(run, this));
+        }
+
+        @Override
+        protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+            Task task = new Task(run, this);
+            return new FutureTask(scheduler.timer.schedule(() -> scheduler.execute(task), delay, unit));
+        }
+
+        @Override
+        protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            return new FutureTask(scheduler.timer.scheduleAtFixedRate(() -> scheduler.execute(new Task(run, this)),
+                    initialDelay, period, unit));
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed || scheduler.disposed;
+        }
+    }
+}
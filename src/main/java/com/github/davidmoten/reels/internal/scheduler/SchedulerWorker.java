@@ -29,6 +29,11 @@ public final class SchedulerWorker extends AbstractCanScheduleDisposable impleme
         return worker.schedulePeriodically(run, initialDelay, period, unit);
     }
 
+    @Override
+    public boolean runsOnCurrentThread() {
+        return worker.runsOnCurrentThread();
+    }
+
     @Override
     public void dispose() {
         disposed = true;
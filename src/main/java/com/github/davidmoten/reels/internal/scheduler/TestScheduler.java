@@ -145,6 +145,7 @@ public class TestScheduler extends AbstractCanScheduleDisposable implements Sche
 
     }
 
+    @Deprecated
     @Override
     public boolean requiresDrainSynchronization() {
         return false;
@@ -0,0 +1,63 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Worker;
+
+/**
+ * Worker that submits tasks to an ExecutorService and times delayed and
+ * periodic tasks with a {@link HashedWheelTimer} that submits them to the same
+ * ExecutorService when due.
+ */
+public final class TimerExecutorWorker extends AbstractCanScheduleDisposable implements Worker {
+
+    private final ExecutorService executor;
+    private final Supplier<HashedWheelTimer> timer;
+    private volatile boolean disposed;
+
+    /**
+     * Creates a worker.
+     * 
+     * @param executor runs the tasks
+     * @param timer    supplies the timer when the first delayed or periodic task
+     *                 is scheduled (so that it can be created lazily)
+     */
+    public TimerExecutorWorker(ExecutorService executor, Supplier<HashedWheelTimer> timer) {
+        this.executor = executor;
+        this.timer = timer;
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run) {
+        try {
+            return new FutureTask(executor.submit(run));
+        } catch (RejectedExecutionException e) {
+            // executor shut down
+            return Disposable.disposed();
+        }
+    }
+
+    @Override
+    protected Disposable _schedule(Runnable run, long delay, TimeUnit unit) {
+        return timer.get().schedule(run, delay, unit, executor);
+    }
+
+    @Override
+    protected Disposable _schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+        return timer.get().schedulePeriodically(run, initialDelay, period, unit, executor);
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor used by {@link SchedulerVirtual}. This is the Java 8
+ * version which uses a cached pool of platform threads. On Java 21+ the class
+ * in {@code META-INF/versions/21} of the multi-release jar replaces this one and
+ * starts a virtual thread per task.
+ */
+final class VirtualThreads {
+
+    static final boolean SUPPORTED = false;
+
+    private VirtualThreads() {
+        // prevent instantiation
+    }
+
+    static ExecutorService newExecutor(String prefix) {
+        return Executors.newCachedThreadPool(SchedulerHelper.createThreadFactory(prefix));
+    }
+}
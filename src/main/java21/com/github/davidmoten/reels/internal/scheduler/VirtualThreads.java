@@ -0,0 +1,22 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor used by {@link SchedulerVirtual}. This is the Java 21+
+ * version (packaged in {@code META-INF/versions/21} of the multi-release jar)
+ * which starts a new virtual thread for each task.
+ */
+final class VirtualThreads {
+
+    static final boolean SUPPORTED = true;
+
+    private VirtualThreads() {
+        // prevent instantiation
+    }
+
+    static ExecutorService newExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix + "-", 1).factory());
+    }
+}
@@ -3,12 +3,15 @@ package com.github.davidmoten.reels;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -18,6 +21,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -762,6 +766,299 @@ public class ActorTest {
         context.shutdownNow();
     }
 
+    @Test
+    public void testAskWithTimeoutReplied() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        ActorRef<String> actor = context.<String>matchAny(m -> m.reply("boo")) //
+                .build();
+        assertEquals("boo", actor.ask("hi", 5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncActorProcessesOneAtATime() throws InterruptedException {
+        Context context = Context.create();
+        List<CompletableFuture<Void>> stages = new CopyOnWriteArrayList<>();
+        List<Integer> started = new CopyOnWriteArrayList<>();
+        ActorRef<Integer> a = context.<Integer>async(1, m -> {
+            started.add(m.content());
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            stages.add(f);
+            return f;
+        }) //
+                .supervisor((m, self, e) -> {
+                    // keep going
+                }) //
+                .build();
+        a.tell(1);
+        a.tell(2);
+        a.tell(3);
+        waitFor(() -> started.size() == 1);
+        Thread.sleep(50);
+        assertEquals(Arrays.asList(1), started);
+        stages.get(0).complete(null);
+        waitFor(() -> started.size() == 2);
+        // a failed stage goes to the supervisor and processing continues
+        stages.get(1).completeExceptionally(new RuntimeException("boo"));
+        waitFor(() -> started.size() == 3);
+        assertEquals(Arrays.asList(1, 2, 3), started);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncActorMaxInFlight() throws InterruptedException {
+        Context context = Context.create();
+        List<CompletableFuture<Void>> stages = new CopyOnWriteArrayList<>();
+        ActorRef<Integer> a = context.<Integer>async(2, m -> {
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            stages.add(f);
+            return f;
+        }).build();
+        for (int i = 0; i < 4; i++) {
+            a.tell(i);
+        }
+        waitFor(() -> stages.size() == 2);
+        Thread.sleep(50);
+        assertEquals(2, stages.size());
+        stages.get(1).complete(null);
+        waitFor(() -> stages.size() == 3);
+        stages.get(0).complete(null);
+        waitFor(() -> stages.size() == 4);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncActorDoesNotHoldThread() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        Scheduler scheduler = Scheduler.newSingle();
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        ActorRef<Integer> a = context.<Integer>async(1, m -> stage) //
+                .scheduler(scheduler) //
+                .build();
+        ActorRef<Integer> b = context.<Integer>matchAny(m -> m.reply(m.content() + 1)) //
+                .scheduler(scheduler) //
+                .build();
+        a.tell(1);
+        // b shares the only thread of the scheduler with the waiting actor a
+        assertEquals(3, (int) b.<Integer>ask(2).get(5, TimeUnit.SECONDS));
+        stage.complete(null);
+        context.shutdownNow();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testAsyncActorFailureRetried() throws InterruptedException {
+        Context context = Context.create();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        ActorRef<Integer> a = context.<Integer>async(1, m -> {
+            CompletableFuture<Void> f = new CompletableFuture<>();
+            if (attempts.incrementAndGet() == 1) {
+                // a dependent stage wraps the error in a CompletionException
+                return CompletableFuture.<Void>supplyAsync(() -> {
+                    throw new IllegalStateException("boo");
+                }).thenRun(() -> {
+                });
+            } else {
+                latch.countDown();
+                f.complete(null);
+            }
+            return f;
+        }) //
+                .supervisor((m, self, e) -> {
+                    error.set(e);
+                    self.retry();
+                }) //
+                .build();
+        a.tell(1);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertTrue(error.get() instanceof IllegalStateException);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncActorRetryOfRequeuedMessageThatThrows() throws InterruptedException {
+        Context context = Context.create();
+        List<Integer> calls = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> failing = new CompletableFuture<>();
+        CountDownLatch bothCalled = new CountDownLatch(2);
+        CountDownLatch finished = new CountDownLatch(1);
+        ActorRef<Integer> a = context.<Integer>async(2, m -> {
+            calls.add(m.content());
+            bothCalled.countDown();
+            if (m.content() == 2) {
+                return CompletableFuture.completedFuture(null);
+            }
+            int attempts = (int) calls.stream().filter(x -> x == 1).count();
+            if (attempts == 1) {
+                return failing;
+            } else if (attempts == 2) {
+                // fails synchronously when taken from the retried messages
+                throw new IllegalStateException("boo");
+            } else {
+                finished.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+        }) //
+                .supervisor((m, self, e) -> self.retry()) //
+                .build();
+        a.tell(1);
+        a.tell(2);
+        // 2 is now the latest message polled from the mailbox
+        assertTrue(bothCalled.await(5, TimeUnit.SECONDS));
+        failing.completeExceptionally(new IllegalStateException("boo"));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 2, 1, 1), calls);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncActorClass() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        ActorRef<Integer> a = context.actorClass(AsyncReplier.class).build();
+        assertEquals(2, (int) a.<Integer>ask(1).get(5, TimeUnit.SECONDS));
+        context.shutdownNow();
+    }
+
+    public static final class AsyncReplier extends AbstractAsyncActor<Integer> {
+
+        @Override
+        public CompletionStage<?> onMessageAsync(Message<Integer> message) {
+            return CompletableFuture.supplyAsync(() -> message.content() + 1).thenAccept(message::reply);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAsyncAndMatchesNotAllowed() {
+        Context.create().<Integer>matchAny(m -> {
+        }).async(1, m -> null);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    public void testPipeToSelf() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        CompletableFuture<Integer> service = new CompletableFuture<>();
+        CompletableFuture<Object> received = new CompletableFuture<>();
+        AtomicReference<Object> sender = new AtomicReference<>();
+        ActorRef<Object> a = context.<Object>actorBuilder() //
+                .match(String.class, m -> m.pipeTo(service, m.self())) //
+                .match(Status.class, m -> {
+                    sender.set(m.sender());
+                    received.complete(m.content());
+                }) //
+                .build();
+        a.tell("go");
+        Thread.sleep(50);
+        assertFalse(received.isDone());
+        service.complete(3);
+        Status<?> status = (Status<?>) received.get(5, TimeUnit.SECONDS);
+        assertTrue(status.isSuccess());
+        assertFalse(status.isFailure());
+        assertEquals(3, status.value());
+        assertTrue(status.error() == null);
+        assertTrue(sender.get() == a);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testPipeToFailure() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        CompletableFuture<Status<Integer>> received = new CompletableFuture<>();
+        ActorRef<Status<Integer>> target = context.<Status<Integer>>matchAny(m -> received.complete(m.content())) //
+                .build();
+        RuntimeException error = new RuntimeException("boo");
+        ActorRef<String> a = context.<String>matchAny(m -> m.pipeTo( //
+                CompletableFuture.<Integer>supplyAsync(() -> {
+                    throw error;
+                }).thenApply(x -> x + 1), target)) //
+                .build();
+        a.tell("go");
+        Status<Integer> status = received.get(5, TimeUnit.SECONDS);
+        assertTrue(status.isFailure());
+        // the CompletionException from the dependent stage is unwrapped
+        assertTrue(status.error() == error);
+        assertTrue(status.value() == null);
+        assertTrue(status.toString().startsWith("Status[failure="));
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAskAll() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        List<ActorRef<Integer>> actors = IntStream.range(0, 50) //
+                .mapToObj(i -> context.<Integer>matchAny(m -> m.reply(m.content() + i)).build()) //
+                .collect(Collectors.toList());
+        int sum = context.askAll(actors, 1, 5, TimeUnit.SECONDS, Collectors.<Integer>summingInt(x -> x)) //
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(50 + 49 * 50 / 2, sum);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAskAllTimeoutReturnsPartialResults()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        ActorRef<String> replies = context.<String>matchAny(m -> m.reply("a")).build();
+        ActorRef<String> silent = context.<String>matchAny(m -> {
+        }).build();
+        List<String> list = context.<String, String>askAll(Arrays.asList(replies, silent, replies), "hi", 100,
+                TimeUnit.MILLISECONDS) //
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a", "a"), list);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAskAllEmpty() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        List<Object> list = context.askAll(Collections.<ActorRef<Object>>emptyList(), "hi", 1, TimeUnit.SECONDS)
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(list.isEmpty());
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAskAllSurplusReplyIgnored() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        ActorRef<String> twice = context.<String>matchAny(m -> {
+            m.reply("a");
+            m.reply("b");
+        }).build();
+        List<String> list = context.<String, String>askAll(Collections.singletonList(twice), "hi", 5,
+                TimeUnit.SECONDS) //
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList("a"), list);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAskWithTimeoutNoReply() throws InterruptedException, TimeoutException {
+        Context context = Context.create();
+        ActorRef<String> actor = context.<String>matchAny(m -> {
+        }) //
+                .build();
+        CompletableFuture<String> f = actor.ask("hi", 10, TimeUnit.MILLISECONDS);
+        try {
+            f.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // a late reply is ignored
+        assertFalse(f.complete("late"));
+        context.shutdownNow();
+    }
+
     @Test
     public void testCreateAndStop() throws InterruptedException, ExecutionException, TimeoutException {
         Context context = Context //
@@ -914,6 +1211,642 @@ public class ActorTest {
         context.shutdownGracefully().get(5000, TimeUnit.SECONDS);
     }
 
+    @Test
+    public void testThroughputLimitYieldsThreadToOtherActors()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.builder().throughput(2).build();
+        try {
+            List<String> list = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> hot = c.<Integer>matchAny(m -> {
+                list.add("hot" + m.content());
+                if (m.content() == 5) {
+                    finished.countDown();
+                }
+            }) //
+                    .scheduler(scheduler) //
+                    .build();
+            ActorRef<Integer> quiet = c.<Integer>matchAny(m -> list.add("quiet" + m.content())) //
+                    .scheduler(scheduler) //
+                    .build();
+            // block the single thread so that both actors have queued messages
+            CountDownLatch blocked = new CountDownLatch(1);
+            scheduler.schedule(() -> {
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+            });
+            for (int i = 0; i < 6; i++) {
+                hot.tell(i);
+            }
+            quiet.tell(0);
+            blocked.countDown();
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("hot0", "hot1", "quiet0", "hot2", "hot3", "hot4", "hot5"), list);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testThroughputTimeLimitYieldsThreadToOtherActors()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            List<String> list = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> hot = c.<Integer>matchAny(m -> {
+                list.add("hot" + m.content());
+                try {
+                    // exceeds the time limit
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+                if (m.content() == 2) {
+                    finished.countDown();
+                }
+            }) //
+                    .scheduler(scheduler) //
+                    .throughput(Integer.MAX_VALUE, 1, TimeUnit.MILLISECONDS) //
+                    .build();
+            ActorRef<Integer> quiet = c.<Integer>matchAny(m -> list.add("quiet" + m.content())) //
+                    .scheduler(scheduler) //
+                    .build();
+            CountDownLatch blocked = new CountDownLatch(1);
+            scheduler.schedule(() -> {
+                try {
+                    blocked.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+            });
+            for (int i = 0; i < 3; i++) {
+                hot.tell(i);
+            }
+            quiet.tell(0);
+            blocked.countDown();
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("hot0", "quiet0", "hot1", "hot2"), list);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testThroughputLimitOnImmediateSchedulerDoesNotOverflowStack() {
+        Context c = Context.create();
+        int n = 100000;
+        AtomicInteger count = new AtomicInteger();
+        ActorRef<Integer> a = c.<Integer>matchAny(m -> count.incrementAndGet()) //
+                .scheduler(Scheduler.immediate()) //
+                .throughput(1) //
+                .build();
+        // one drain for the whole batch
+        a.tellAll(IntStream.range(0, n).boxed().collect(Collectors.toList()));
+        assertEquals(n, count.get());
+        c.shutdownNow();
+    }
+
+    @Test
+    public void testTellAll() throws InterruptedException {
+        checkTellAll(MailboxFactory.defaultMailboxFactory());
+    }
+
+    @Test
+    public void testTellAllWhenMailboxDoesNotSupportBatches() throws InterruptedException {
+        checkTellAll(MailboxFactory.bounded(1000, false));
+    }
+
+    private static void checkTellAll(MailboxFactory mailboxFactory) throws InterruptedException {
+        Context c = Context.create();
+        List<Integer> list = new CopyOnWriteArrayList<>();
+        ActorRef<Object> sender = c.matchAny(m -> {
+        }).build();
+        AtomicBoolean senderCorrect = new AtomicBoolean(true);
+        CountDownLatch latch = new CountDownLatch(1);
+        ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+            if (m.sender() != sender) {
+                senderCorrect.set(false);
+            }
+            list.add(m.content());
+            if (m.content() == 100) {
+                latch.countDown();
+            }
+        }) //
+                .mailboxFactory(mailboxFactory) //
+                .build();
+        a.tellAll(IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()), sender);
+        a.tellAll(Collections.emptyList(), sender);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()), list);
+        assertTrue(senderCorrect.get());
+        c.shutdownGracefully();
+    }
+
+    @Test
+    public void testBatchDeliversAvailableMessagesTogether()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+            CountDownLatch stopped = new CountDownLatch(1);
+            ActorRef<Integer> a = c.<Integer>batch(4, list -> batches
+                    .add(list.stream().map(Message::content).collect(Collectors.toList()))) //
+                    .onStop(self -> stopped.countDown()) //
+                    .scheduler(scheduler) //
+                    .build();
+            blockUntilCountDown(scheduler, () -> {
+                for (int i = 1; i <= 10; i++) {
+                    a.tell(i);
+                }
+                a.stop();
+            });
+            assertTrue(stopped.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(Arrays.asList(1, 2, 3, 4), Arrays.asList(5, 6, 7, 8), Arrays.asList(9, 10)),
+                    batches);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchRetryRedeliversWholeBatch()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.builder() //
+                .supervisor((m, self, e) -> self.retry()) //
+                .build();
+        try {
+            List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> a = c.<Integer>batch(10, list -> {
+                batches.add(list.stream().map(Message::content).collect(Collectors.toList()));
+                if (batches.size() == 1) {
+                    throw new RuntimeException("boo");
+                }
+                finished.countDown();
+            }) //
+                    .scheduler(scheduler) //
+                    .build();
+            blockUntilCountDown(scheduler, () -> {
+                a.tell(1);
+                a.tell(2);
+                a.tell(3);
+            });
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(1, 2, 3)), batches);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchRetryAfterPreStartFailsOnRetriedBatch()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            AtomicInteger preStarts = new AtomicInteger();
+            List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> a = c.<Integer>batch(10, list -> {
+                batches.add(list.stream().map(Message::content).collect(Collectors.toList()));
+                if (batches.size() == 1) {
+                    throw new RuntimeException("boo");
+                }
+                finished.countDown();
+            }) //
+                    .preStart(self -> {
+                        if (preStarts.incrementAndGet() == 2) {
+                            throw new RuntimeException("boo");
+                        }
+                    }) //
+                    .supervisor((m, self, e) -> {
+                        self.retry();
+                        if (!(e instanceof PreStartException)) {
+                            self.restart();
+                        }
+                    }) //
+                    .scheduler(scheduler) //
+                    .build();
+            blockUntilCountDown(scheduler, () -> {
+                a.tell(1);
+                a.tell(2);
+                a.tell(3);
+            });
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            // the batch is retried from pending and preStart fails on its first message
+            // which is retried (the message is still delivered after a preStart
+            // failure), not the last message polled from the mailbox
+            assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(1, 1, 2, 3)), batches);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchActorClass() throws InterruptedException, ExecutionException, TimeoutException {
+        Context c = Context.create();
+        CountDownLatch latch = new CountDownLatch(3);
+        ActorRef<Integer> a = c.actorClass(MyBatchActor.class, latch).build();
+        a.tell(1);
+        a.tell(2);
+        a.tell(3);
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchAndMatchesNotAllowed() {
+        Context.create().<Integer>matchAny(m -> {
+        }).batch(10, list -> {
+        });
+    }
+
+    // runs action while the single thread of the scheduler is blocked so that
+    // messages sent by action are all queued before any are processed
+    private static void blockUntilCountDown(Scheduler scheduler, Runnable action) {
+        CountDownLatch blocked = new CountDownLatch(1);
+        scheduler.schedule(() -> {
+            try {
+                blocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // do nothing
+            }
+        });
+        action.run();
+        blocked.countDown();
+    }
+
+    public static final class MyBatchActor extends AbstractBatchActor<Integer> {
+
+        private final CountDownLatch latch;
+
+        public MyBatchActor(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void onMessages(List<Message<Integer>> messages) {
+            for (int i = 0; i < messages.size(); i++) {
+                latch.countDown();
+            }
+        }
+    }
+
+    @Test
+    public void testStopNowDiscardsBacklog() throws InterruptedException, ExecutionException, TimeoutException {
+        Context c = Context.create();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+            count.incrementAndGet();
+            if (m.content() == 0) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+            }
+        }) //
+                .onStop(self -> stopped.countDown()) //
+                .build();
+        for (int i = 0; i < 10000; i++) {
+            a.tell(i);
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        c.shutdownNow();
+        release.countDown();
+        assertTrue(stopped.await(10, TimeUnit.SECONDS));
+        c.shutdownNow().get(10, TimeUnit.SECONDS);
+        assertEquals(1, count.get());
+        assertTrue(a.isStopped());
+    }
+
+    @Test
+    public void testParentKeepsRunningWhenOnlyChildStops() throws InterruptedException {
+        Context c = Context.create();
+        CountDownLatch childStopped = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        ActorRef<String> parent = c.<String>matchEquals("start", m -> {
+            m.context().<Object>matchAny(m2 -> {
+            }) //
+                    .parent(m.self()) //
+                    .onStop(self -> childStopped.countDown()) //
+                    .name("child") //
+                    .build() //
+                    .stop();
+        }) //
+                .matchEquals("after", m -> latch.countDown()) //
+                .build();
+        parent.tell("start");
+        assertTrue(childStopped.await(10, TimeUnit.SECONDS));
+        // give the Terminated message time to arrive
+        Thread.sleep(100);
+        parent.tell("after");
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertFalse(parent.isStopped());
+        c.shutdownGracefully();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThroughputMustBePositive() {
+        Context.create().matchAny(m -> {
+        }).throughput(0);
+    }
+
+    @Test
+    public void testInlineDeliveryProcessesOnSenderThreadInOrder()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            List<String> list = new CopyOnWriteArrayList<>();
+            AtomicReference<Thread> receiverThread = new AtomicReference<>();
+            ActorRef<Integer> receiver = c.<Integer>matchAny(m -> {
+                receiverThread.set(Thread.currentThread());
+                list.add("receiver" + m.content());
+            }) //
+                    .scheduler(scheduler) //
+                    .inlineDelivery() //
+                    .build();
+            AtomicReference<Thread> senderThread = new AtomicReference<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> sender = c.<Integer>matchAny(m -> {
+                senderThread.set(Thread.currentThread());
+                for (int i = 1; i <= 3; i++) {
+                    receiver.tell(i);
+                }
+                list.add("sender");
+                finished.countDown();
+            }) //
+                    .scheduler(scheduler) //
+                    .build();
+            sender.tell(0);
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            // each message was processed by the receiver before tell returned
+            assertEquals(Arrays.asList("receiver1", "receiver2", "receiver3", "sender"), list);
+            assertTrue(senderThread.get() == receiverThread.get());
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testInlineDeliveryOfTellAllProcessesOnSenderThread()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            List<String> list = new CopyOnWriteArrayList<>();
+            ActorRef<Integer> receiver = c.<Integer>matchAny(m -> list.add("receiver" + m.content())) //
+                    .scheduler(scheduler) //
+                    .inlineDelivery() //
+                    .build();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> sender = c.<Integer>matchAny(m -> {
+                receiver.tellAll(Arrays.asList(1, 2, 3));
+                list.add("sender");
+                finished.countDown();
+            }) //
+                    .scheduler(scheduler) //
+                    .build();
+            sender.tell(0);
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            // the batch was processed by the receiver before tellAll returned
+            assertEquals(Arrays.asList("receiver1", "receiver2", "receiver3", "sender"), list);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testInlineDeliveryFromAnotherThreadIsScheduled()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            List<Integer> list = new CopyOnWriteArrayList<>();
+            AtomicBoolean onCallerThread = new AtomicBoolean();
+            Thread caller = Thread.currentThread();
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+                if (Thread.currentThread() == caller) {
+                    onCallerThread.set(true);
+                }
+                list.add(m.content());
+                if (m.content() == 100) {
+                    finished.countDown();
+                }
+            }) //
+                    .scheduler(scheduler) //
+                    .inlineDelivery() //
+                    .build();
+            for (int i = 1; i <= 100; i++) {
+                a.tell(i);
+            }
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertEquals(IntStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()), list);
+            assertFalse(onCallerThread.get());
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testInlineDeliveryLongChainDoesNotOverflowStack()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            int n = 10000;
+            CountDownLatch finished = new CountDownLatch(1);
+            ActorRef<Integer> next = c.<Integer>matchAny(m -> finished.countDown()) //
+                    .scheduler(scheduler) //
+                    .inlineDelivery() //
+                    .build();
+            for (int i = 0; i < n; i++) {
+                ActorRef<Integer> target = next;
+                next = c.<Integer>matchAny(m -> target.tell(m.content())) //
+                        .scheduler(scheduler) //
+                        .inlineDelivery() //
+                        .build();
+            }
+            next.tell(1);
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testOutboxDefersRecipientsUntilSenderDrainEnds()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.newSingle();
+        Context c = Context.create();
+        try {
+            List<String> list = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(2);
+            // immediate recipients would run inside tell if not deferred
+            ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+                list.add("a" + m.content());
+                if (m.content() == 2) {
+                    finished.countDown();
+                }
+            }) //
+                    .scheduler(Scheduler.immediate()) //
+                    .build();
+            ActorRef<Integer> b = c.<Integer>matchAny(m -> {
+                list.add("b" + m.content());
+                finished.countDown();
+            }) //
+                    .scheduler(Scheduler.immediate()) //
+                    .build();
+            ActorRef<Integer> sender = c.<Integer>matchAny(m -> {
+                a.tell(1);
+                b.tell(1);
+                a.tell(2);
+                list.add("sender");
+            }) //
+                    .scheduler(scheduler) //
+                    .outbox() //
+                    .build();
+            sender.tell(0);
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            // recipients are scheduled in the order they were first told
+            assertEquals(Arrays.asList("sender", "a1", "a2", "b1"), list);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testOutboxFanOutDeliversAllInOrder()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Context c = Context.create();
+        try {
+            int recipients = 10;
+            int messages = 1000;
+            CountDownLatch finished = new CountDownLatch(recipients);
+            AtomicBoolean inOrder = new AtomicBoolean(true);
+            List<ActorRef<Integer>> list = new ArrayList<>();
+            for (int i = 0; i < recipients; i++) {
+                int[] expected = new int[1];
+                list.add(c.<Integer>matchAny(m -> {
+                    if (m.content() != expected[0]) {
+                        inOrder.set(false);
+                    }
+                    expected[0]++;
+                    if (expected[0] == messages) {
+                        finished.countDown();
+                    }
+                }).build());
+            }
+            ActorRef<Integer> sender = c.<Integer>matchAny(m -> {
+                for (ActorRef<Integer> r : list) {
+                    r.tell(m.content());
+                }
+            }) //
+                    .outbox() //
+                    .build();
+            for (int i = 0; i < messages; i++) {
+                sender.tell(i);
+            }
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            assertTrue(inOrder.get());
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testBlockingOnForkJoinCompensates()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Scheduler scheduler = Scheduler.forkJoin(1);
+        Context c = Context.create();
+        try {
+            // each actor blocks until both are blocked which needs a second thread
+            CountDownLatch bothBlocked = new CountDownLatch(2);
+            CountDownLatch finished = new CountDownLatch(2);
+            List<ActorRef<Integer>> actors = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                actors.add(c.<Integer>matchAny(m -> {
+                    boolean released = m.blocking(() -> {
+                        bothBlocked.countDown();
+                        return bothBlocked.await(10, TimeUnit.SECONDS);
+                    });
+                    if (released) {
+                        finished.countDown();
+                    }
+                }) //
+                        .scheduler(scheduler) //
+                        .build());
+            }
+            actors.forEach(a -> a.tell(1));
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlockingRecordsStatsAndRethrows()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Context c = Context.create();
+        try {
+            CountDownLatch finished = new CountDownLatch(1);
+            AtomicReference<Throwable> error = new AtomicReference<>();
+            ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+                if (m.content() == 1) {
+                    m.blocking(() -> {
+                        Thread.sleep(20);
+                        return null;
+                    });
+                } else {
+                    try {
+                        m.blocking(() -> {
+                            throw new java.io.IOException("boo");
+                        });
+                    } catch (RuntimeException e) {
+                        error.set(e.getCause());
+                    }
+                    finished.countDown();
+                }
+            }).build();
+            assertEquals(0, a.blockingStats().count());
+            a.tell(1);
+            a.tell(2);
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            BlockingStats stats = a.blockingStats();
+            assertEquals(2, stats.count());
+            assertTrue(stats.totalTime(TimeUnit.MILLISECONDS) >= 20);
+            assertTrue(stats.maxTime(TimeUnit.MILLISECONDS) >= 20);
+            assertTrue(error.get() instanceof java.io.IOException);
+        } finally {
+            c.shutdownGracefully().get(10, TimeUnit.SECONDS);
+        }
+    }
+
     public static final class MyActor extends AbstractActor<Integer> {
 
         static volatile Integer last;
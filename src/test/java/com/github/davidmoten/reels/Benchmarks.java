@@ -2,11 +2,26 @@ package com.github.davidmoten.reels;
 
 import static org.junit.Assert.assertTrue;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -20,17 +35,45 @@ import org.openjdk.jmh.infra.Blackhole;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.davidmoten.reels.internal.scheduler.SchedulerComputationSticky;
+import com.github.davidmoten.reels.internal.scheduler.SplitResponsibilityScheduledExecutorService;
+
 @State(Scope.Benchmark)
 public class Benchmarks {
 
     static final int MESSAGES_PER_RUNNER = Integer.getInteger("messages", 10000);
 
+    static final int BLOCKING_ACTORS = Integer.getInteger("blocking.actors", 10000);
+
     private static final Logger log = LoggerFactory.getLogger(Benchmarks.class);
 
     private final Random random = new Random();
     private Context context;
     private ActorRef<String> askActor;
 
+    // counts executor submissions made by the scheduler (one per idle to busy
+    // transition of an actor rather than one per tell)
+    private static final CountingExecutorService countingForkJoinExecutor = new CountingExecutorService(
+            ForkJoinPool.commonPool());
+    private static final Scheduler countingForkJoin = Scheduler.fromExecutor(
+            new SplitResponsibilityScheduledExecutorService(countingForkJoinExecutor,
+                    Executors.newSingleThreadScheduledExecutor()));
+
+    // a dedicated async mode pool to compare with the common pool used by
+    // forkJoin()
+    private static final Scheduler forkJoinDedicated = Scheduler
+            .forkJoin(Runtime.getRuntime().availableProcessors());
+
+    // the thread types used by single() and computationSticky() before they
+    // became event loops (single thread ScheduledThreadPoolExecutors)
+    private static final Scheduler singleExecutor = Scheduler
+            .fromExecutor(Executors.newSingleThreadScheduledExecutor(), false);
+    private static final Scheduler computationStickyExecutor = new SchedulerComputationSticky(Placement.RANDOM,
+            false, false);
+
+    // bounded io pool to compare with io() (a thread per blocked actor)
+    private static final Scheduler ioBounded = Scheduler.io(Integer.getInteger("io.max.threads", 64));
+
     @Setup(Level.Invocation)
     public void setup() {
         context = Context //
@@ -48,6 +91,10 @@ public class Benchmarks {
     public void tearDown() throws InterruptedException, ExecutionException, TimeoutException {
         context.shutdownGracefully().get(5, TimeUnit.SECONDS);
         context = null;
+        long submissions = countingForkJoinExecutor.count.getAndSet(0);
+        if (submissions > 0) {
+            log.info("executor submissions={}", submissions);
+        }
     }
 
     @Benchmark
@@ -68,24 +115,248 @@ public class Benchmarks {
         }
     }
 
+    /**
+     * 100 actors on {@code io()} each make 100 calls to an asynchronous service
+     * (1ms latency) and block on each result.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void asyncServiceBlockingIo() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(ASYNC_ACTORS * ASYNC_CALLS);
+        List<ActorRef<Integer>> actors = IntStream.range(0, ASYNC_ACTORS) //
+                .mapToObj(i -> context.<Integer>matchAny(m -> {
+                    try {
+                        AsyncService.call(m.content()).get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        throw new RuntimeException(e);
+                    }
+                    latch.countDown();
+                }) //
+                        .scheduler(Scheduler.io()) //
+                        .build()) //
+                .collect(Collectors.toList());
+        asyncServiceCalls(actors, latch);
+    }
+
+    /**
+     * As for {@link #asyncServiceBlockingIo()} but the actors run on
+     * {@code forkJoin()} and the results are piped back to them as
+     * {@link Status} messages.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void asyncServicePipeToForkJoin() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(ASYNC_ACTORS * ASYNC_CALLS);
+        List<ActorRef<Object>> actors = IntStream.range(0, ASYNC_ACTORS) //
+                .mapToObj(i -> context.actorBuilder() //
+                        .match(Integer.class, m -> m.pipeTo(AsyncService.call((Integer) m.content()), m.self())) //
+                        .match(Status.class, m -> latch.countDown()) //
+                        .scheduler(Scheduler.forkJoin()) //
+                        .build()) //
+                .collect(Collectors.toList());
+        asyncServiceCalls(actors, latch);
+    }
+
+    /**
+     * As for {@link #asyncServiceBlockingIo()} (one call at a time per actor) but
+     * the actors are AsyncActors on {@code forkJoin()} that hold no thread while
+     * a call is in flight.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void asyncServiceAsyncActorForkJoin() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(ASYNC_ACTORS * ASYNC_CALLS);
+        List<ActorRef<Integer>> actors = IntStream.range(0, ASYNC_ACTORS) //
+                .mapToObj(i -> context.<Integer>async(1,
+                        m -> AsyncService.call(m.content()).thenRun(latch::countDown)) //
+                        .scheduler(Scheduler.forkJoin()) //
+                        .build()) //
+                .collect(Collectors.toList());
+        asyncServiceCalls(actors, latch);
+    }
+
+    private static final int ASYNC_ACTORS = 100;
+    private static final int ASYNC_CALLS = 100;
+
+    private static void asyncServiceCalls(List<? extends ActorRef<? super Integer>> actors, CountDownLatch latch)
+            throws InterruptedException {
+        for (int i = 0; i < ASYNC_CALLS; i++) {
+            for (ActorRef<? super Integer> actor : actors) {
+                actor.tell(i);
+            }
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
+    // stand-in for an asynchronous client (http, database) with 1ms latency
+    private static final class AsyncService {
+        static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "async-service");
+            t.setDaemon(true);
+            return t;
+        });
+
+        static CompletableFuture<Integer> call(int x) {
+            CompletableFuture<Integer> f = new CompletableFuture<>();
+            EXECUTOR.schedule(() -> f.complete(x), 1, TimeUnit.MILLISECONDS);
+            return f;
+        }
+    }
+
+    /**
+     * Asks 200 shard actors and sums their replies using one aggregating reply
+     * endpoint, 1000 times.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void askAllShards(Blackhole bh) throws InterruptedException, ExecutionException, TimeoutException {
+        List<ActorRef<Integer>> shards = shards();
+        for (int i = 0; i < 1000; i++) {
+            bh.consume(context.askAll(shards, 1, 1000, TimeUnit.MILLISECONDS, Collectors.<Integer>summingInt(x -> x))
+                    .get());
+        }
+    }
+
+    /**
+     * As for {@link #askAllShards(Blackhole)} but with an ask (and a future) per
+     * shard combined with {@code CompletableFuture.allOf}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void askAllShardsAllOf(Blackhole bh) throws InterruptedException, ExecutionException, TimeoutException {
+        List<ActorRef<Integer>> shards = shards();
+        for (int i = 0; i < 1000; i++) {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>(shards.size());
+            for (ActorRef<Integer> shard : shards) {
+                futures.add(shard.ask(1));
+            }
+            bh.consume(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])) //
+                    .thenApply(x -> futures.stream().mapToInt(CompletableFuture::join).sum()) //
+                    .get(1000, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private List<ActorRef<Integer>> shards() {
+        return IntStream.range(0, 200) //
+                .mapToObj(i -> context.<Integer>matchAny(m -> m.reply(m.content() + i)).build()) //
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void askWithTimeout(Blackhole bh) throws InterruptedException, ExecutionException, TimeoutException {
+        for (int i = 0; i < 10000; i++) {
+            bh.consume(askActor.<String>ask("hi", 1000, TimeUnit.MILLISECONDS).get());
+        }
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void contendedConcurrencyForkJoin() throws InterruptedException {
         contendedConcurrency(Scheduler.forkJoin(), MESSAGES_PER_RUNNER);
     }
 
+    /**
+     * Same as {@link #contendedConcurrencyForkJoin()} but counts (and logs) the
+     * number of tasks submitted to the executor. Run with {@code -prof gc} to see
+     * the allocation rate.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyForkJoinCountSubmissions() throws InterruptedException {
+        contendedConcurrency(countingForkJoin, MESSAGES_PER_RUNNER);
+    }
+
+    /**
+     * Same as {@link #contendedConcurrencyForkJoin()} but all actors have an
+     * outbox so that a recipient's drain is scheduled once per drain of the sender
+     * rather than on every tell.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyForkJoinOutbox() throws InterruptedException {
+        contendedConcurrency(Scheduler.forkJoin(), MESSAGES_PER_RUNNER, null, true);
+    }
+
+    /**
+     * Same as {@link #contendedConcurrencyForkJoinCountSubmissions()} but all
+     * actors have an outbox.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyForkJoinCountSubmissionsOutbox() throws InterruptedException {
+        contendedConcurrency(countingForkJoin, MESSAGES_PER_RUNNER, null, true);
+    }
+
 //    @Benchmark
 //    @BenchmarkMode(Mode.AverageTime)
 //    public void contendedConcurrencyForkJoinLong() throws InterruptedException {
 //        contendedConcurrency(Scheduler.forkJoin(), 100000);
 //   ) }
 
+    /**
+     * Same as {@link #contendedConcurrencyForkJoin()} but uses the non-intrusive
+     * {@link MailboxFactory#unbounded()} mailbox (allocates a queue node per
+     * message). Compare allocation rates using {@code -prof gc}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyForkJoinMailboxUnbounded() throws InterruptedException {
+        contendedConcurrency(Scheduler.forkJoin(), MESSAGES_PER_RUNNER, MailboxFactory.unbounded());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyForkJoinDedicated() throws InterruptedException {
+        contendedConcurrency(forkJoinDedicated, MESSAGES_PER_RUNNER);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void contendedConcurrencyComputationSticky() throws InterruptedException {
         contendedConcurrency(Scheduler.computationSticky(), MESSAGES_PER_RUNNER);
     }
 
+    /**
+     * Same as {@link #contendedConcurrencyComputationSticky()} but the threads are
+     * single thread ScheduledThreadPoolExecutors rather than event loops.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyComputationStickyExecutor() throws InterruptedException {
+        contendedConcurrency(computationStickyExecutor, MESSAGES_PER_RUNNER);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyComputationStickyRoundRobin() throws InterruptedException {
+        contendedConcurrency(StickySchedulers.ROUND_ROBIN, MESSAGES_PER_RUNNER);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyComputationStickyLeastLoaded() throws InterruptedException {
+        contendedConcurrency(StickySchedulers.LEAST_LOADED, MESSAGES_PER_RUNNER);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyComputationStickyPowerOfTwoChoices() throws InterruptedException {
+        contendedConcurrency(StickySchedulers.POWER_OF_TWO_CHOICES, MESSAGES_PER_RUNNER);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyComputationStickyLeastLoadedRebalance() throws InterruptedException {
+        contendedConcurrency(StickySchedulers.LEAST_LOADED_REBALANCE, MESSAGES_PER_RUNNER);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void contendedConcurrencyComputationStealing() throws InterruptedException {
+        contendedConcurrency(Scheduler.computationStealing(), MESSAGES_PER_RUNNER);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void contendedConcurrencyImmediate() throws InterruptedException {
@@ -98,24 +369,461 @@ public class Benchmarks {
         groupRandomMessages(Scheduler.forkJoin());
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesForkJoinDedicated() throws InterruptedException {
+        groupRandomMessages(forkJoinDedicated);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void groupRandomMessagesComputationSticky() throws InterruptedException {
         groupRandomMessages(Scheduler.computationSticky());
     }
 
+    /**
+     * Same as {@link #groupRandomMessagesComputationSticky()} but the threads are
+     * single thread ScheduledThreadPoolExecutors rather than event loops.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesComputationStickyExecutor() throws InterruptedException {
+        groupRandomMessages(computationStickyExecutor);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesComputationStickyRoundRobin() throws InterruptedException {
+        groupRandomMessages(StickySchedulers.ROUND_ROBIN);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesComputationStickyLeastLoaded() throws InterruptedException {
+        groupRandomMessages(StickySchedulers.LEAST_LOADED);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesComputationStickyPowerOfTwoChoices() throws InterruptedException {
+        groupRandomMessages(StickySchedulers.POWER_OF_TWO_CHOICES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesComputationStickyLeastLoadedRebalance() throws InterruptedException {
+        groupRandomMessages(StickySchedulers.LEAST_LOADED_REBALANCE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void groupRandomMessagesComputationStealing() throws InterruptedException {
+        groupRandomMessages(Scheduler.computationStealing());
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void groupRandomMessagesIo() throws InterruptedException {
         groupRandomMessages(Scheduler.io());
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void blockingActorsIo() throws InterruptedException {
+        blockingActors(Scheduler.io());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void blockingActorsIoBounded() throws InterruptedException {
+        blockingActors(ioBounded);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void blockingActorsVirtual() throws InterruptedException {
+        blockingActors(Scheduler.virtual());
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.Throughput)
     public void groupRandomMessagesImmediate() throws InterruptedException {
         groupRandomMessages(Scheduler.immediate());
     }
 
+    /**
+     * Measures how long a quiet actor waits to process a single message when a hot
+     * actor with a deep mailbox shares its thread and drains till empty.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void quietActorLatencyWithHotActorOnSameThread() throws InterruptedException {
+        quietActorLatencyWithHotActorOnSameThread(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Measures how long a quiet actor waits to process a single message when a hot
+     * actor with a deep mailbox shares its thread but yields every 100 messages.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void quietActorLatencyWithHotActorOnSameThreadThroughputLimited() throws InterruptedException {
+        quietActorLatencyWithHotActorOnSameThread(100);
+    }
+
+    private void quietActorLatencyWithHotActorOnSameThread(int throughput) throws InterruptedException {
+        int hotMessages = 1000000;
+        CountDownLatch latch = new CountDownLatch(1);
+        ActorRef<Integer> hot = context //
+                .<Integer>matchAny(m -> {
+                    // do nothing
+                }) //
+                .scheduler(Scheduler.single()) //
+                .throughput(throughput) //
+                .build();
+        ActorRef<Integer> quiet = context //
+                .<Integer>matchAny(m -> latch.countDown()) //
+                .scheduler(Scheduler.single()) //
+                .throughput(throughput) //
+                .build();
+        for (int i = 0; i < hotMessages; i++) {
+            hot.tell(i);
+        }
+        quiet.tell(0);
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Measures how long non-blocking actors on {@code forkJoin()} take to process
+     * their messages while other actors on the same pool block (for 50ms each)
+     * without telling the pool.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void mixedBlockingForkJoin() throws InterruptedException {
+        mixedBlocking(false);
+    }
+
+    /**
+     * Same as {@link #mixedBlockingForkJoin()} but the actors block with
+     * {@link Message#blocking(java.util.concurrent.Callable)} so the pool can add
+     * threads to compensate.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void mixedBlockingForkJoinManaged() throws InterruptedException {
+        mixedBlocking(true);
+    }
+
+    private void mixedBlocking(boolean managed) throws InterruptedException {
+        int blockingActors = 4 * Runtime.getRuntime().availableProcessors();
+        int actors = 100;
+        int messagesPerActor = 1000;
+        CountDownLatch latch = new CountDownLatch(actors);
+        for (int i = 0; i < blockingActors; i++) {
+            context.<Integer>matchAny(m -> {
+                if (managed) {
+                    m.blocking(() -> {
+                        Thread.sleep(50);
+                        return null;
+                    });
+                } else {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        // do nothing
+                    }
+                }
+            }) //
+                    .scheduler(Scheduler.forkJoin()) //
+                    .build() //
+                    .tell(i);
+        }
+        for (int i = 0; i < actors; i++) {
+            int[] count = new int[1];
+            ActorRef<Integer> a = context.<Integer>matchAny(m -> {
+                if (++count[0] == messagesPerActor) {
+                    latch.countDown();
+                }
+            }) //
+                    .scheduler(Scheduler.forkJoin()) //
+                    .build();
+            for (int j = 0; j < messagesPerActor; j++) {
+                a.tell(j);
+            }
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Measures the latency of messages to a control actor while bulk actors keep
+     * the pool busy, with every actor at the same priority (so waiting actors run
+     * in arrival order). Percentiles are logged.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void controlLatencyUnderBulkLoadFifo() throws InterruptedException {
+        logLatencies("fifo", controlLatencies(PrioritySchedulers.POOL, PrioritySchedulers.POOL));
+    }
+
+    /**
+     * Same as {@link #controlLatencyUnderBulkLoadFifo()} but the control actor has
+     * a higher priority than the bulk actors.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void controlLatencyUnderBulkLoadPriority() throws InterruptedException {
+        logLatencies("priority", controlLatencies(PrioritySchedulers.POOL, PrioritySchedulers.POOL.priority(1000)));
+    }
+
+    // returns the sorted latencies in nanos of messages to the control actor
+    long[] controlLatencies(Scheduler bulkScheduler, Scheduler controlScheduler) throws InterruptedException {
+        int bulkActors = 20;
+        int bulkMessages = 500;
+        int pings = 100;
+        CountDownLatch bulkDone = new CountDownLatch(bulkActors);
+        for (int i = 0; i < bulkActors; i++) {
+            ActorRef<Integer> a = context.<Integer>matchAny(m -> {
+                // about 20 microseconds of work
+                long t = System.nanoTime();
+                while (System.nanoTime() - t < 20000) {
+                    // busy
+                }
+                if (m.content() == bulkMessages - 1) {
+                    bulkDone.countDown();
+                }
+            }) //
+                    .scheduler(bulkScheduler) //
+                    .build();
+            for (int j = 0; j < bulkMessages; j++) {
+                a.tell(j);
+            }
+        }
+        long[] latencies = new long[pings];
+        CountDownLatch pingsDone = new CountDownLatch(pings);
+        ActorRef<long[]> control = context.<long[]>matchAny(m -> {
+            latencies[(int) m.content()[0]] = System.nanoTime() - m.content()[1];
+            pingsDone.countDown();
+        }) //
+                .scheduler(controlScheduler) //
+                .build();
+        for (int i = 0; i < pings; i++) {
+            control.tell(new long[] { i, System.nanoTime() });
+            Thread.sleep(1);
+        }
+        assertTrue(pingsDone.await(60, TimeUnit.SECONDS));
+        assertTrue(bulkDone.await(60, TimeUnit.SECONDS));
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void logLatencies(String name, long[] sorted) {
+        log.info("{} latency ms p50={}, p99={}, max={}", name, sorted[sorted.length / 2] / 1e6,
+                sorted[sorted.length * 99 / 100] / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    /**
+     * Measures 1,000,000 round trips between two actors on the same single
+     * thread.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void pingPongSingle() throws InterruptedException {
+        pingPong(Scheduler.single(), false);
+    }
+
+    /**
+     * Same as {@link #pingPongSingle()} but the thread is a single thread
+     * ScheduledThreadPoolExecutor rather than an event loop.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void pingPongSingleExecutor() throws InterruptedException {
+        pingPong(singleExecutor, false);
+    }
+
+    /**
+     * Measures 1,000,000 round trips between two actors on the same single thread
+     * with inline delivery enabled.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void pingPongSingleInline() throws InterruptedException {
+        pingPong(Scheduler.single(), true);
+    }
+
+    private void pingPong(Scheduler scheduler, boolean inline) throws InterruptedException {
+        int roundTrips = 1000000;
+        CountDownLatch latch = new CountDownLatch(1);
+        ActorBuilder<Integer> pongBuilder = context //
+                .<Integer>matchAny(m -> m.reply(m.content())) //
+                .scheduler(scheduler);
+        ActorBuilder<Integer> pingBuilder = context //
+                .<Integer>matchAny(m -> {
+                    int x = m.content();
+                    if (x == roundTrips) {
+                        latch.countDown();
+                    } else {
+                        m.sender().tell(x + 1, m.self());
+                    }
+                }) //
+                .scheduler(scheduler);
+        if (inline) {
+            pongBuilder = pongBuilder.inlineDelivery();
+            pingBuilder = pingBuilder.inlineDelivery();
+        }
+        ActorRef<Integer> pong = pongBuilder.build();
+        ActorRef<Integer> ping = pingBuilder.build();
+        pong.tell(1, ping);
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Sends 1,000,000 messages to one actor in batches of 1000 with
+     * {@link ActorRef#tell(Object)}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void batchesSentWithTell() throws InterruptedException {
+        sendBatches(false);
+    }
+
+    /**
+     * Sends 1,000,000 messages to one actor in batches of 1000 with
+     * {@link ActorRef#tellAll(Iterable)}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void batchesSentWithTellAll() throws InterruptedException {
+        sendBatches(true);
+    }
+
+    private void sendBatches(boolean tellAll) throws InterruptedException {
+        int batches = 1000;
+        int batchSize = 1000;
+        List<Integer> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(i);
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        int[] count = new int[] { batches * batchSize };
+        ActorRef<Integer> a = context //
+                .<Integer>matchAny(m -> {
+                    count[0]--;
+                    if (count[0] == 0) {
+                        latch.countDown();
+                    }
+                }) //
+                .scheduler(Scheduler.forkJoin()) //
+                .build();
+        for (int i = 0; i < batches; i++) {
+            if (tellAll) {
+                a.tellAll(batch);
+            } else {
+                for (Integer x : batch) {
+                    a.tell(x);
+                }
+            }
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Measures {@link Context#shutdownNow()} when an actor has 1,000,000 messages
+     * queued (the actor is busy with its first message when shutdown starts).
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void shutdownNowWithMillionQueued()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ActorRef<Integer> a = context //
+                .<Integer>matchAny(m -> {
+                    if (m.content() == 0) {
+                        started.countDown();
+                        try {
+                            release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            // do nothing
+                        }
+                    }
+                }) //
+                .scheduler(Scheduler.forkJoin()) //
+                .build();
+        for (int i = 0; i < 1000000; i++) {
+            a.tell(i);
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> f = context.shutdownNow();
+        release.countDown();
+        f.get(60, TimeUnit.SECONDS);
+    }
+
+    static final int ROUTER_MESSAGES = 200000;
+
+    static final int ROUTEES = 4;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void routerRoundRobin() throws InterruptedException {
+        routerMessages(RouterStrategy.roundRobin());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void routerRandom() throws InterruptedException {
+        routerMessages(RouterStrategy.random());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void routerSmallestMailbox() throws InterruptedException {
+        routerMessages(RouterStrategy.smallestMailbox());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void routerConsistentHash() throws InterruptedException {
+        routerMessages(RouterStrategy.<Integer>consistentHash(x -> x));
+    }
+
+    private void routerMessages(RouterStrategy<Integer> strategy) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(ROUTER_MESSAGES);
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> latch.countDown()) //
+                .scheduler(Scheduler.forkJoin()) //
+                .router(strategy, ROUTEES) //
+                .build();
+        for (int i = 0; i < ROUTER_MESSAGES; i++) {
+            router.tell(i);
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
+    /**
+     * The round-robin balancer actor from {@link LoadBalancerExampleMain} (every
+     * message passes through the balancer's mailbox) to compare with
+     * {@link #routerRoundRobin()}.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void routerBalancerExample() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(ROUTER_MESSAGES);
+        Function<ActorRef<Integer>, ActorRef<Integer>> workerFactory = parent -> context
+                .<Integer>matchAny(m -> latch.countDown()) //
+                .scheduler(Scheduler.forkJoin()) //
+                .parent(parent) //
+                .build();
+        ActorRef<Integer> balancer = context
+                .actorFactory(() -> new LoadBalancerExampleMain.Balancer<Integer>(workerFactory, ROUTEES)) //
+                .scheduler(Scheduler.forkJoin()) //
+                .build();
+        for (int i = 0; i < ROUTER_MESSAGES; i++) {
+            balancer.tell(i);
+        }
+        assertTrue(latch.await(60, TimeUnit.SECONDS));
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.SingleShotTime)
     public void sequential() throws InterruptedException, ExecutionException, TimeoutException {
@@ -185,21 +893,57 @@ public class Benchmarks {
         assertTrue(latch.await(60, TimeUnit.SECONDS));
     }
 
+    private void blockingActors(Scheduler scheduler) throws InterruptedException {
+        // run with -prof gc for allocation, the peak live thread count logged here
+        // is the main memory cost of io() (a platform thread stack per blocked actor)
+        int numActors = BLOCKING_ACTORS;
+        CountDownLatch latch = new CountDownLatch(numActors);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        for (int i = 0; i < numActors; i++) {
+            context.<Integer>matchAny(m -> {
+                try {
+                    // simulate a JDBC call
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                latch.countDown();
+            }) //
+                    .scheduler(scheduler) //
+                    .build() //
+                    .tell(i);
+        }
+        assertTrue(latch.await(120, TimeUnit.SECONDS));
+        log.info("peakThreads={}", threads.getPeakThreadCount());
+    }
+
     private enum Start {
         VALUE;
     }
 
     private void contendedConcurrency(Scheduler scheduler, int messagesPerRunner) throws InterruptedException {
+        contendedConcurrency(scheduler, messagesPerRunner, null);
+    }
+
+    private void contendedConcurrency(Scheduler scheduler, int messagesPerRunner, MailboxFactory mailboxFactory)
+            throws InterruptedException {
+        contendedConcurrency(scheduler, messagesPerRunner, mailboxFactory, false);
+    }
+
+    // mailboxFactory is nullable (null means use the default for the scheduler)
+    private void contendedConcurrency(Scheduler scheduler, int messagesPerRunner, MailboxFactory mailboxFactory,
+            boolean outbox) throws InterruptedException {
         int runners = 100;
         CountDownLatch latch = new CountDownLatch(1);
         int[] count = new int[] { runners * messagesPerRunner };
-        ActorRef<Object> root = context //
+        ActorRef<Object> root = withOutbox(withMailboxFactory(context //
                 .<Object, Start>match(Start.class, m -> {
                     for (int i = 0; i < runners; i++) {
-                        ActorRef<int[]> actor = m.context() //
+                        ActorRef<int[]> actor = withOutbox(withMailboxFactory(m.context() //
                                 .<int[]>matchAny(m2 -> m2.sender().tell(m2.content(), m2.self())) //
-                                .scheduler(scheduler) //
-                                .build();
+                                .scheduler(scheduler), mailboxFactory), outbox) //
+                                        .build();
                         for (int j = 0; j < messagesPerRunner; j++) {
                             actor.tell(new int[] { i, j }, m.self());
                         }
@@ -212,12 +956,79 @@ public class Benchmarks {
                     }
                 }) //
                 .name("root") //
-                .scheduler(scheduler) //
-                .build();
+                .scheduler(scheduler), mailboxFactory), outbox) //
+                        .build();
         root.tell(Start.VALUE);
         assertTrue(latch.await(60, TimeUnit.SECONDS));
     }
 
+    private static <T> ActorBuilder<T> withMailboxFactory(ActorBuilder<T> builder, MailboxFactory mailboxFactory) {
+        if (mailboxFactory == null) {
+            return builder;
+        } else {
+            return builder.mailboxFactory(mailboxFactory);
+        }
+    }
+
+    private static <T> ActorBuilder<T> withOutbox(ActorBuilder<T> builder, boolean outbox) {
+        return outbox ? builder.outbox() : builder;
+    }
+
+    // holder so that the threads are only created if one of these benchmarks runs
+    private static final class PrioritySchedulers {
+        static final PriorityScheduler POOL = Scheduler.newPriority();
+    }
+
+    // holder so that the threads are only created if one of these benchmarks runs
+    private static final class StickySchedulers {
+        static final Scheduler ROUND_ROBIN = Scheduler.newComputationSticky(Placement.ROUND_ROBIN, false);
+        static final Scheduler LEAST_LOADED = Scheduler.newComputationSticky(Placement.LEAST_LOADED, false);
+        static final Scheduler POWER_OF_TWO_CHOICES = Scheduler.newComputationSticky(Placement.POWER_OF_TWO_CHOICES,
+                false);
+        static final Scheduler LEAST_LOADED_REBALANCE = Scheduler.newComputationSticky(Placement.LEAST_LOADED, true);
+    }
+
+    private static final class CountingExecutorService extends AbstractExecutorService {
+
+        private final ForkJoinPool executor;
+        final AtomicLong count = new AtomicLong();
+
+        CountingExecutorService(ForkJoinPool executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            count.incrementAndGet();
+            executor.execute(command);
+        }
+
+        @Override
+        public void shutdown() {
+            // don't shutdown the common pool
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
     public static void main(String[] args) throws InterruptedException, ExecutionException, TimeoutException {
 //        Context context = new Context((c, actor, error) -> {
 //            log.error(actor.name() + ":" + error.getMessage(), error);
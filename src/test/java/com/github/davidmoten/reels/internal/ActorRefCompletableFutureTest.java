@@ -4,8 +4,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.Test;
 
@@ -26,6 +29,44 @@ public class ActorRefCompletableFutureTest {
         f.ask(1);
     }
     
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAskWithTimeout() {
+        ActorRefCompletableFuture<Integer> f = new ActorRefCompletableFuture<Integer>();
+        f.ask(1, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException {
+        ActorRefCompletableFuture<Integer> f = new ActorRefCompletableFuture<Integer>();
+        f.timeout(1, TimeUnit.MILLISECONDS);
+        try {
+            f.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // a late reply is ignored
+        f.tell(1);
+        assertTrue(f.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testReplyBeforeTimeout() throws InterruptedException, ExecutionException {
+        ActorRefCompletableFuture<Integer> f = new ActorRefCompletableFuture<Integer>();
+        f.timeout(10, TimeUnit.MILLISECONDS);
+        f.tell(1);
+        Thread.sleep(50);
+        assertEquals(1, (int) f.get());
+    }
+
+    @Test
+    public void testCancelWithTimeout() {
+        ActorRefCompletableFuture<Integer> f = new ActorRefCompletableFuture<Integer>();
+        f.timeout(1, TimeUnit.SECONDS);
+        assertTrue(f.cancel(false));
+        assertTrue(f.isCancelled());
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void testContext() {
         ActorRefCompletableFuture<Integer> f = new ActorRefCompletableFuture<Integer>();
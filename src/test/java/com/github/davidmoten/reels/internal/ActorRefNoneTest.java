@@ -3,6 +3,7 @@ package com.github.davidmoten.reels.internal;
 import static org.junit.Assert.*;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -19,6 +20,7 @@ public class ActorRefNoneTest {
         assertTrue(a.children().isEmpty());
         CompletableFuture<Object> f = a.ask(1);
         assertTrue(f.isCompletedExceptionally());
+        assertTrue(a.ask(1, 1, TimeUnit.SECONDS).isCompletedExceptionally());
         assertTrue(a.isStopped());
         assertEquals(a, a.parent());
         assertEquals("reels-none", a.name());
@@ -0,0 +1,292 @@
+package com.github.davidmoten.reels.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.MailboxFactory;
+import com.github.davidmoten.reels.RouterStrategy;
+import com.github.davidmoten.reels.Scheduler;
+
+public class ActorRefRouterTest {
+
+    @Test
+    public void testRoundRobinFromOneThreadIsEven() throws InterruptedException {
+        Context context = Context.create();
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        CountDownLatch latch = new CountDownLatch(100);
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> {
+            counts.computeIfAbsent(m.self().name(), k -> new AtomicInteger()).incrementAndGet();
+            latch.countDown();
+        }) //
+                .name("rr") //
+                .router(RouterStrategy.roundRobin(), 4) //
+                .build();
+        for (int i = 0; i < 100; i++) {
+            router.tell(i);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(4, counts.size());
+        for (AtomicInteger count : counts.values()) {
+            assertEquals(25, count.get());
+        }
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testRandomDeliversAll() throws InterruptedException {
+        Context context = Context.create();
+        CountDownLatch latch = new CountDownLatch(1000);
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> latch.countDown()) //
+                .router(RouterStrategy.random(), 5) //
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            router.tell(i);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testConsistentHashRoutesEqualKeysToSameRoutee() throws InterruptedException {
+        Context context = Context.create();
+        Map<Integer, String> routeeForKey = new ConcurrentHashMap<>();
+        AtomicInteger mismatches = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1000);
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> {
+            String previous = routeeForKey.putIfAbsent(m.content() % 10, m.self().name());
+            if (previous != null && !previous.equals(m.self().name())) {
+                mismatches.incrementAndGet();
+            }
+            latch.countDown();
+        }) //
+                .router(RouterStrategy.<Integer>consistentHash(x -> x % 10), 4) //
+                .build();
+        for (int i = 0; i < 1000; i++) {
+            router.tell(i);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, mismatches.get());
+        // the keys are spread over more than one routee
+        assertTrue(routeeForKey.values().stream().distinct().count() > 1);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testSmallestMailboxAvoidsBusyRoutee() throws InterruptedException {
+        Context context = Context.create();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        Semaphore processed = new Semaphore(0);
+        ActorRef<String> router = context.<String>matchAny(m -> {
+            if (m.content().equals("block")) {
+                blocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+            } else {
+                counts.computeIfAbsent(m.self().name(), k -> new AtomicInteger()).incrementAndGet();
+                processed.release();
+            }
+        }) //
+                .scheduler(Scheduler.io()) //
+                .name("sm") //
+                .router(RouterStrategy.smallestMailbox(), 2) //
+                .build();
+        router.tell("block");
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            // wait for each message to be finished with so the idle routee has an
+            // empty mailbox (otherwise it could tie with the busy routee)
+            waitForTotalMailboxSize(router, 1);
+            router.tell("work");
+            assertTrue(processed.tryAcquire(5, TimeUnit.SECONDS));
+        }
+        // all the work went to the routee that was not busy
+        assertEquals(1, counts.size());
+        release.countDown();
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testSmallestMailboxDoesNotCountMessagesRejectedByBoundedMailbox() throws InterruptedException {
+        checkBoundedMailboxCount(false);
+    }
+
+    @Test
+    public void testSmallestMailboxDoesNotCountMessagesDroppedByBoundedMailbox() throws InterruptedException {
+        checkBoundedMailboxCount(true);
+    }
+
+    private static void checkBoundedMailboxCount(boolean dropFirst) throws InterruptedException {
+        Context context = Context.create();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> {
+            if (m.content() == 0) {
+                blocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+            }
+        }) //
+                .scheduler(Scheduler.io()) //
+                .mailboxFactory(MailboxFactory.bounded(3, dropFirst)) //
+                .router(RouterStrategy.smallestMailbox(), 1) //
+                .build();
+        router.tell(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 10; i++) {
+            router.tell(i);
+        }
+        // the message being processed and the 3 the mailbox holds
+        waitForTotalMailboxSize(router, 4);
+        release.countDown();
+        waitForTotalMailboxSize(router, 0);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testSmallestMailboxUncountsMessagesDiscardedByStopNow() throws InterruptedException {
+        Context context = Context.create();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> {
+            if (m.content() == 0) {
+                blocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+            }
+        }) //
+                .scheduler(Scheduler.io()) //
+                .router(RouterStrategy.smallestMailbox(), 1) //
+                .build();
+        router.tell(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 10; i++) {
+            router.tell(i);
+        }
+        waitForTotalMailboxSize(router, 11);
+        List<ActorRef<?>> routees = new ArrayList<>(router.children());
+        router.stopNow();
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (routees.stream().mapToInt(r -> ((ActorRefImpl<?>) r).mailboxSize()).sum() != 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, routees.stream().mapToInt(r -> ((ActorRefImpl<?>) r).mailboxSize()).sum());
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testSmallestMailboxCountsAsyncMessageUntilStageCompletes() throws InterruptedException {
+        Context context = Context.create();
+        CompletableFuture<Void> stage = new CompletableFuture<>();
+        CountDownLatch called = new CountDownLatch(1);
+        ActorRef<Integer> router = context.<Integer>async(1, m -> {
+            called.countDown();
+            return stage;
+        }) //
+                .router(RouterStrategy.smallestMailbox(), 1) //
+                .build();
+        router.tell(1);
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        waitForTotalMailboxSize(router, 1);
+        stage.complete(null);
+        waitForTotalMailboxSize(router, 0);
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testAskStopAndChildren() throws InterruptedException, ExecutionException, TimeoutException {
+        Context context = Context.create();
+        ActorRef<Integer> router = context.<Integer>matchAny(m -> m.reply(m.content() + 1)) //
+                .name("r") //
+                .router(RouterStrategy.roundRobin(), 3) //
+                .build();
+        assertEquals(2, (int) router.<Integer>ask(1).get(5, TimeUnit.SECONDS));
+        assertEquals(3, (int) router.<Integer>ask(2, 5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+        assertEquals("r", router.name());
+        assertEquals("r", router.toString());
+        assertTrue(router.context() == context);
+        assertTrue(router.scheduler() == Scheduler.defaultScheduler());
+        assertEquals(3, router.children().size());
+        assertEquals("r-1", router.child("r-1").name());
+        assertNull(router.child("other"));
+        assertTrue(context.lookupActor("r-2").isPresent());
+        assertFalse(router.isStopped());
+        router.stop();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!router.isStopped() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(router.isStopped());
+        context.shutdownNow();
+    }
+
+    @Test
+    public void testJumpHashIsConsistent() {
+        int moved = 0;
+        for (long key = 0; key < 10000; key++) {
+            int a = ActorRefRouter.jumpHash(key * 0x9E3779B97F4A7C15L, 10);
+            int b = ActorRefRouter.jumpHash(key * 0x9E3779B97F4A7C15L, 11);
+            assertTrue(a >= 0 && a < 10);
+            if (a != b) {
+                // keys only move to the new bucket
+                assertEquals(10, b);
+                moved++;
+            }
+        }
+        // about 1/11 of the keys move
+        assertTrue(moved > 700 && moved < 1100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeMustBePositive() {
+        Context.create().matchAny(m -> {
+        }).router(RouterStrategy.roundRobin(), 0);
+    }
+
+    private static void waitForTotalMailboxSize(ActorRef<?> router, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            int total = 0;
+            for (ActorRef<?> routee : router.children()) {
+                total += ((ActorRefImpl<?>) routee).mailboxSize();
+            }
+            if (total == size) {
+                return;
+            }
+            Thread.sleep(1);
+        }
+        fail("mailbox sizes did not total " + size);
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.davidmoten.reels.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+public class AskTimerTest {
+
+    @Test
+    public void testTimeout() throws InterruptedException {
+        CompletableFuture<Integer> f = AskTimer.timeout(new CompletableFuture<>(), 10, TimeUnit.MILLISECONDS);
+        try {
+            f.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } catch (TimeoutException e) {
+            fail("future not completed by timer");
+        }
+    }
+
+    @Test
+    public void testCompletesBeforeTimeout() throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<Integer> f = AskTimer.timeout(new CompletableFuture<>(), 10, TimeUnit.MILLISECONDS);
+        f.complete(1);
+        Thread.sleep(50);
+        assertEquals(1, (int) f.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnitMustNotBeNull() {
+        AskTimer.timeout(new CompletableFuture<>(), 10, null);
+    }
+}
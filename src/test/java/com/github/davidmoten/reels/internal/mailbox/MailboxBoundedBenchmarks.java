@@ -0,0 +1,108 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.Message;
+
+/**
+ * Fan-in contention on a bounded mailbox: the lock-free {@link MailboxBounded}
+ * against the monitor based {@link MailboxBoundedSynchronized} with 1, 4 and 16
+ * producers. Producers retry rejected offers so that every message is
+ * delivered to the consumer (the benchmark thread).
+ */
+@State(Scope.Benchmark)
+public class MailboxBoundedBenchmarks {
+
+    static final int MESSAGES_PER_INVOCATION = Integer.getInteger("messages", 1000000);
+
+    private static final int MAX_SIZE = 1024;
+
+    private static final Message<Integer> MESSAGE = new Message<>(1, ActorRef.none(), ActorRef.none());
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public long lockFreeProducers1() throws InterruptedException {
+        return run(() -> new MailboxBounded<>(MAX_SIZE, false), 1);
+    }
+
+    @Benchmark
+    public long lockFreeProducers4() throws InterruptedException {
+        return run(() -> new MailboxBounded<>(MAX_SIZE, false), 4);
+    }
+
+    @Benchmark
+    public long lockFreeProducers16() throws InterruptedException {
+        return run(() -> new MailboxBounded<>(MAX_SIZE, false), 16);
+    }
+
+    @Benchmark
+    public long synchronizedProducers1() throws InterruptedException {
+        return run(() -> new MailboxBoundedSynchronized<>(MAX_SIZE, false), 1);
+    }
+
+    @Benchmark
+    public long synchronizedProducers4() throws InterruptedException {
+        return run(() -> new MailboxBoundedSynchronized<>(MAX_SIZE, false), 4);
+    }
+
+    @Benchmark
+    public long synchronizedProducers16() throws InterruptedException {
+        return run(() -> new MailboxBoundedSynchronized<>(MAX_SIZE, false), 16);
+    }
+
+    private long run(Supplier<Mailbox<Integer>> factory, int producers) throws InterruptedException {
+        Mailbox<Integer> mailbox = factory.get();
+        int perProducer = MESSAGES_PER_INVOCATION / producers;
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!mailbox.offer(MESSAGE)) { } // NOPMD
+                }
+            });
+        }
+        start.countDown();
+        long total = (long) perProducer * producers;
+        long count = 0;
+        long sum = 0;
+        while (count < total) {
+            Message<Integer> m = mailbox.poll();
+            if (m != null) {
+                sum += m.content();
+                count++;
+            }
+        }
+        return sum;
+    }
+
+}
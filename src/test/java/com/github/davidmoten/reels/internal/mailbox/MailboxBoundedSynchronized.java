@@ -0,0 +1,58 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import java.util.ArrayDeque;
+
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.Message;
+
+/**
+ * The bounded mailbox implementation that preceded {@link MailboxBounded}
+ * (guarded by a monitor). Kept for benchmark comparison.
+ */
+public final class MailboxBoundedSynchronized<T> extends ArrayDeque<Message<T>> implements Mailbox<T> {
+
+    private static final long serialVersionUID = 5507680744735201877L;
+
+    private final int maxSize;
+
+    private final boolean dropFirst;
+
+    private Message<T> latest;
+    private boolean retry;
+
+    public MailboxBoundedSynchronized(int maxSize, boolean dropFirst) {
+        this.maxSize = maxSize;
+        this.dropFirst = dropFirst;
+    }
+
+    @Override
+    public Message<T> poll() {
+        if (retry && latest != null) {
+            retry = false;
+            return latest;
+        } else {
+            retry = false;
+            synchronized (this) {
+                return latest = super.poll();
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean offer(Message<T> message) {
+        if (size() == maxSize) {
+            if (dropFirst) {
+                pollFirst();
+            } else {
+                return false;
+            }
+        }
+        return super.offer(message);
+    }
+
+    @Override
+    public void retryLatest() {
+        retry = true;
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.MailboxFactory;
+import com.github.davidmoten.reels.Message;
+
+public class MailboxUnboundedChunkedTest {
+
+    @Test
+    public void test() {
+        Mailbox<Integer> m = MailboxFactory.unboundedChunked(2).create();
+        m.offer(new Message<>(1, ActorRef.none(), ActorRef.none()));
+        m.offer(new Message<>(2, ActorRef.none(), ActorRef.none()));
+        m.offer(new Message<>(3, ActorRef.none(), ActorRef.none()));
+        m.retryLatest();
+        assertEquals(1, (int) m.poll().content());
+        m.retryLatest();
+        assertEquals(1, (int) m.poll().content());
+        assertEquals(2, (int) m.poll().content());
+        assertEquals(3, (int) m.poll().content());
+        assertNull(m.poll());
+    }
+
+}
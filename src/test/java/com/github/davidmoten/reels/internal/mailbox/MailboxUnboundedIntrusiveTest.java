@@ -0,0 +1,30 @@
+package com.github.davidmoten.reels.internal.mailbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Mailbox;
+import com.github.davidmoten.reels.Message;
+
+public class MailboxUnboundedIntrusiveTest {
+
+    @Test
+    public void test() {
+        Mailbox<Integer> m = new MailboxUnboundedIntrusive<>();
+        m.offer(new Message<>(1, ActorRef.none(), ActorRef.none()));
+        m.offer(new Message<>(2, ActorRef.none(), ActorRef.none()));
+        m.retryLatest();
+        assertEquals(1, (int) m.poll().content());
+        m.retryLatest();
+        assertEquals(1, (int) m.poll().content());
+        assertEquals(2, (int) m.poll().content());
+        assertNull(m.poll());
+        m.offer(new Message<>(3, ActorRef.none(), ActorRef.none()));
+        assertEquals(3, (int) m.poll().content());
+        assertNull(m.poll());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.github.davidmoten.reels.internal.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MpscBoundedArrayQueueTest {
+
+    @Test(expected = NullPointerException.class)
+    public void offerNullThrows() {
+        new MpscBoundedArrayQueue<Object>(4, false).offer(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxSizeMustBePositive() {
+        new MpscBoundedArrayQueue<Object>(0, false);
+    }
+
+    @Test
+    public void testDropNewest() {
+        MpscBoundedArrayQueue<Integer> q = new MpscBoundedArrayQueue<>(3, false);
+        assertTrue(q.offer(1));
+        assertTrue(q.offer(2));
+        assertTrue(q.offer(3));
+        assertFalse(q.offer(4));
+        assertEquals(1, (int) q.poll());
+        assertTrue(q.offer(5));
+        assertEquals(2, (int) q.poll());
+        assertEquals(3, (int) q.poll());
+        assertEquals(5, (int) q.poll());
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testDropOldest() {
+        MpscBoundedArrayQueue<Integer> q = new MpscBoundedArrayQueue<>(3, true);
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(q.offer(i));
+        }
+        assertEquals(3, (int) q.poll());
+        assertEquals(4, (int) q.poll());
+        assertEquals(5, (int) q.poll());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void testWrapsAround() {
+        MpscBoundedArrayQueue<Integer> q = new MpscBoundedArrayQueue<>(4, false);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(q.offer(i, i + 1));
+            assertEquals(i, (int) q.poll());
+            assertEquals(i + 1, (int) q.poll());
+            assertTrue(q.isEmpty());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        MpscBoundedArrayQueue<Integer> q = new MpscBoundedArrayQueue<>(4, false);
+        q.offer(1);
+        q.offer(2);
+        assertFalse(q.isEmpty());
+        q.clear();
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testManyProducersPreservesPerProducerOrder() throws InterruptedException {
+        checkManyProducers(false);
+    }
+
+    @Test
+    public void testManyProducersDropOldestPreservesPerProducerOrder() throws InterruptedException {
+        checkManyProducers(true);
+    }
+
+    private static void checkManyProducers(boolean dropFirst) throws InterruptedException {
+        int producers = 4;
+        int n = 20000;
+        MpscBoundedArrayQueue<long[]> q = new MpscBoundedArrayQueue<>(10, dropFirst);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < n; i++) {
+                    long[] v = new long[] { producer, i };
+                    // when dropping newest keep retrying so nothing is lost
+                    while (!q.offer(v)) {
+                        Thread.yield();
+                    }
+                }
+                finished.countDown();
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        start.countDown();
+        long[] next = new long[producers];
+        int count = 0;
+        long finish = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20);
+        while (System.currentTimeMillis() < finish) {
+            long[] v = q.poll();
+            if (v != null) {
+                int producer = (int) v[0];
+                if (dropFirst) {
+                    assertTrue(v[1] >= next[producer]);
+                } else {
+                    assertEquals(next[producer], v[1]);
+                }
+                next[producer] = v[1] + 1;
+                count++;
+            } else if (finished.getCount() == 0 && q.isEmpty()) {
+                break;
+            } else {
+                Thread.yield();
+            }
+        }
+        assertTrue(q.isEmpty());
+        if (dropFirst) {
+            assertTrue(count <= producers * n);
+        } else {
+            assertEquals(producers * n, count);
+        }
+        if (!dropFirst) {
+            for (int p = 0; p < producers; p++) {
+                assertEquals(n, next[p]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.github.davidmoten.reels.internal.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MpscIntrusiveLinkedQueueTest {
+
+    @Test(expected = NullPointerException.class)
+    public void offerNullThrows() {
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        q.offer(null);
+    }
+
+    @Test
+    public void offerTwo() {
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        q.offer(new Node(0, 1), new Node(0, 2));
+        assertEquals(1, q.poll().value);
+        assertEquals(2, q.poll().value);
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void offerAll() {
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        q.offer(new Node(0, 1));
+        q.offerAll(Arrays.asList(new Node(0, 2), new Node(0, 3), new Node(0, 4)));
+        q.offerAll(Collections.emptyList());
+        q.offer(new Node(0, 5));
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, q.poll().value);
+        }
+        assertNull(q.poll());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testEmpty() {
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        assertTrue(q.isEmpty());
+        q.clear();
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testPollThenEmpty() {
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        q.offer(new Node(0, 1));
+        q.offer(new Node(0, 2));
+        assertFalse(q.isEmpty());
+        q.clear();
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testPolledNodeDoesNotRetainQueue() {
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        Node a = new Node(0, 1);
+        q.offer(a);
+        q.offer(new Node(0, 2));
+        assertEquals(a, q.poll());
+        q.poll();
+        assertNull(a.lvNext());
+    }
+
+    @Test
+    public void testManyProducersPreservesPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int n = 100000;
+        MpscIntrusiveLinkedQueue<Node> q = new MpscIntrusiveLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < n; i++) {
+                    q.offer(new Node(producer, i));
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        start.countDown();
+        int[] expected = new int[producers];
+        int count = 0;
+        long finish = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20);
+        while (count < producers * n && System.currentTimeMillis() < finish) {
+            Node node = q.poll();
+            if (node != null) {
+                assertEquals(expected[node.producer], node.value);
+                expected[node.producer]++;
+                count++;
+            }
+        }
+        assertEquals(producers * n, count);
+        assertTrue(q.isEmpty());
+    }
+
+    private static final class Node extends MpscIntrusiveNode {
+        final int producer;
+        final int value;
+
+        Node(int producer, int value) {
+            this.producer = producer;
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.github.davidmoten.reels.internal.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MpscLinkedArrayQueueTest {
+
+    @Test(expected = NullPointerException.class)
+    public void offerNullThrows() {
+        MpscLinkedArrayQueue<Object> q = new MpscLinkedArrayQueue<>();
+        q.offer(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void chunkSizeMustBePositive() {
+        new MpscLinkedArrayQueue<Object>(0);
+    }
+
+    @Test
+    public void offerTwo() {
+        MpscLinkedArrayQueue<Object> q = new MpscLinkedArrayQueue<>();
+        q.offer(1, 2);
+        assertEquals(1, q.poll());
+        assertEquals(2, q.poll());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void testEmpty() {
+        MpscLinkedArrayQueue<Object> q = new MpscLinkedArrayQueue<>();
+        assertTrue(q.isEmpty());
+        q.clear();
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testPollThenEmpty() {
+        MpscLinkedArrayQueue<Object> q = new MpscLinkedArrayQueue<>();
+        q.offer(1);
+        q.offer(2);
+        assertFalse(q.isEmpty());
+        q.clear();
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    public void testAcrossChunks() {
+        MpscLinkedArrayQueue<Integer> q = new MpscLinkedArrayQueue<>(2);
+        for (int i = 0; i < 7; i++) {
+            q.offer(i);
+        }
+        for (int i = 0; i < 7; i++) {
+            assertFalse(q.isEmpty());
+            assertEquals(i, (int) q.poll());
+        }
+        assertTrue(q.isEmpty());
+        assertNull(q.poll());
+        q.offer(7);
+        assertEquals(7, (int) q.poll());
+        assertNull(q.poll());
+    }
+
+    @Test
+    public void testManyProducersPreservesPerProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int n = 100000;
+        MpscLinkedArrayQueue<long[]> q = new MpscLinkedArrayQueue<>(16);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < n; i++) {
+                    q.offer(new long[] { producer, i });
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+        }
+        start.countDown();
+        long[] expected = new long[producers];
+        int count = 0;
+        long finish = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(20);
+        while (count < producers * n && System.currentTimeMillis() < finish) {
+            long[] v = q.poll();
+            if (v != null) {
+                assertEquals(expected[(int) v[0]], v[1]);
+                expected[(int) v[0]]++;
+                count++;
+            }
+        }
+        assertEquals(producers * n, count);
+        assertTrue(q.isEmpty());
+    }
+
+}
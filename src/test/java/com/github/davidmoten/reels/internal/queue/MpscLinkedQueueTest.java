@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.Test;
 
 public class MpscLinkedQueueTest {
@@ -22,6 +24,18 @@ public class MpscLinkedQueueTest {
         assertEquals(2,  q.poll());
     }
     
+    @Test
+    public void offerAll() {
+        MpscLinkedQueue<Object> q = new MpscLinkedQueue<>();
+        q.offer(1);
+        q.offerAll(Arrays.asList(2, 3, 4));
+        q.offer(5);
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, q.poll());
+        }
+        assertTrue(q.isEmpty());
+    }
+    
     @Test
     public void testEmpty() {
         MpscLinkedQueue<Object> q = new MpscLinkedQueue<>();
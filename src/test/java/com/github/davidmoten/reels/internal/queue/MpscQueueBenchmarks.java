@@ -0,0 +1,102 @@
+package com.github.davidmoten.reels.internal.queue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the linked and chunked (linked array) MPSC queues with 1, 4 and 16
+ * producers. Each invocation has the producers offer
+ * {@link #MESSAGES_PER_INVOCATION} elements in total while the benchmark
+ * thread polls them all.
+ */
+@State(Scope.Benchmark)
+public class MpscQueueBenchmarks {
+
+    static final int MESSAGES_PER_INVOCATION = Integer.getInteger("messages", 1000000);
+
+    private static final Integer VALUE = 1;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public long linkedProducers1() throws InterruptedException {
+        return run(MpscLinkedQueue::new, 1);
+    }
+
+    @Benchmark
+    public long linkedProducers4() throws InterruptedException {
+        return run(MpscLinkedQueue::new, 4);
+    }
+
+    @Benchmark
+    public long linkedProducers16() throws InterruptedException {
+        return run(MpscLinkedQueue::new, 16);
+    }
+
+    @Benchmark
+    public long chunkedProducers1() throws InterruptedException {
+        return run(MpscLinkedArrayQueue::new, 1);
+    }
+
+    @Benchmark
+    public long chunkedProducers4() throws InterruptedException {
+        return run(MpscLinkedArrayQueue::new, 4);
+    }
+
+    @Benchmark
+    public long chunkedProducers16() throws InterruptedException {
+        return run(MpscLinkedArrayQueue::new, 16);
+    }
+
+    private long run(Supplier<SimplePlainQueue<Integer>> factory, int producers) throws InterruptedException {
+        SimplePlainQueue<Integer> q = factory.get();
+        int perProducer = MESSAGES_PER_INVOCATION / producers;
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    q.offer(VALUE);
+                }
+            });
+        }
+        start.countDown();
+        long total = (long) perProducer * producers;
+        long count = 0;
+        long sum = 0;
+        while (count < total) {
+            Integer v = q.poll();
+            if (v != null) {
+                sum += v;
+                count++;
+            }
+        }
+        return sum;
+    }
+
+}
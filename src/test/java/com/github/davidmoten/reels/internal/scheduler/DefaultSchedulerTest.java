@@ -0,0 +1,56 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.Scheduler;
+
+public class DefaultSchedulerTest {
+
+    @Test
+    public void testDefaultIsCommonPoolForkJoin() {
+        assertSame(Scheduler.forkJoin(), DefaultScheduler.fromProperties(new Properties()));
+    }
+
+    @Test
+    public void testNamedScheduler() {
+        assertSame(Scheduler.io(), DefaultScheduler.fromProperties(props(DefaultScheduler.KEY_SCHEDULER, "io")));
+        assertSame(Scheduler.single(),
+                DefaultScheduler.fromProperties(props(DefaultScheduler.KEY_SCHEDULER, "single")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownScheduler() {
+        DefaultScheduler.fromProperties(props(DefaultScheduler.KEY_SCHEDULER, "boo"));
+    }
+
+    @Test
+    public void testForkJoinParallelismUsesDedicatedPool() throws InterruptedException {
+        Scheduler s = DefaultScheduler.fromProperties(props(DefaultScheduler.KEY_FORK_JOIN_PARALLELISM, "2"));
+        try {
+            assertNotSame(Scheduler.forkJoin(), s);
+            CountDownLatch latch = new CountDownLatch(1);
+            s.schedule(() -> {
+                if (Thread.currentThread().getName().startsWith("ReelsForkJoin-")) {
+                    latch.countDown();
+                }
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    private static Properties props(String key, String value) {
+        Properties p = new Properties();
+        p.setProperty(key, value);
+        return p;
+    }
+}
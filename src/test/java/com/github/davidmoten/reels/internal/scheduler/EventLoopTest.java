@@ -0,0 +1,263 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.Disposable;
+
+public class EventLoopTest {
+
+    @Test
+    public void testRunsTasksInSubmissionOrderFromManyThreads() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            int producers = 4;
+            int n = 10000;
+            List<List<Integer>> lists = new ArrayList<>();
+            CountDownLatch finished = new CountDownLatch(producers);
+            for (int p = 0; p < producers; p++) {
+                // only touched by the loop thread
+                List<Integer> list = new ArrayList<>();
+                lists.add(list);
+                new Thread(() -> {
+                    for (int i = 0; i < n; i++) {
+                        int x = i;
+                        loop.schedule(() -> list.add(x));
+                    }
+                    loop.schedule(finished::countDown);
+                }).start();
+            }
+            assertTrue(finished.await(10, TimeUnit.SECONDS));
+            List<Integer> expected = IntStream.range(0, n).boxed().collect(Collectors.toList());
+            for (List<Integer> list : lists) {
+                assertEquals(expected, list);
+            }
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testThreadStartsOnFirstSubmission() throws InterruptedException {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        EventLoop loop = new EventLoop(r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            threads.add(t);
+            return t;
+        });
+        try {
+            assertEquals(1, threads.size());
+            assertFalse(threads.get(0).isAlive());
+            CountDownLatch latch = new CountDownLatch(2);
+            loop.schedule(latch::countDown);
+            loop.schedule(latch::countDown);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(threads.get(0).isAlive());
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testTaskErrorIsReportedToUncaughtExceptionHandlerAndLoopContinues()
+            throws InterruptedException {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        EventLoop loop = new EventLoop(r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setUncaughtExceptionHandler((thread, e) -> errors.add(e));
+            return t;
+        });
+        try {
+            RuntimeException error = new RuntimeException("boo");
+            AtomicInteger periodicRuns = new AtomicInteger();
+            loop.schedule(() -> {
+                throw error;
+            });
+            loop.schedulePeriodically(() -> {
+                periodicRuns.incrementAndGet();
+                throw error;
+            }, 0, 1, TimeUnit.MILLISECONDS);
+            Thread.sleep(20);
+            CountDownLatch latch = new CountDownLatch(1);
+            loop.schedule(latch::countDown);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            // the periodic task is not run again after it throws
+            assertEquals(1, periodicRuns.get());
+            assertEquals(Arrays.asList(error, error), errors);
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testCountsQueuedTasks() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        loop.schedule(() -> await(release));
+        Disposable d = loop.schedule(() -> {
+        });
+        loop.schedule(() -> finished.countDown());
+        assertEquals(3, loop.queued());
+        // cancelling a task that hasn't run reduces the count
+        d.dispose();
+        assertEquals(2, loop.queued());
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (loop.queued() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, loop.queued());
+        loop.dispose();
+    }
+
+    @Test
+    public void testDelayedTasksRunInDeadlineOrderOnLoopThread() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            List<Integer> list = new CopyOnWriteArrayList<>();
+            AtomicBoolean onLoop = new AtomicBoolean(true);
+            CountDownLatch finished = new CountDownLatch(3);
+            for (int i : new int[] { 3, 1, 2 }) {
+                loop.schedule(() -> {
+                    if (!loop.runsOnCurrentThread()) {
+                        onLoop.set(false);
+                    }
+                    list.add(i);
+                    finished.countDown();
+                }, i * 20, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(1, 2, 3), list);
+            assertTrue(onLoop.get());
+            assertFalse(loop.runsOnCurrentThread());
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testDelayedTaskRunsWhileLoopIsBusy() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            AtomicBoolean busy = new AtomicBoolean(true);
+            // resubmits itself so the queue never empties
+            Runnable spin = new Runnable() {
+                @Override
+                public void run() {
+                    if (busy.get()) {
+                        loop.schedule(this);
+                    }
+                }
+            };
+            loop.schedule(spin);
+            CountDownLatch latch = new CountDownLatch(1);
+            loop.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } finally {
+                busy.set(false);
+            }
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testDisposedDelayedTaskDoesNotRun() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            AtomicBoolean ran = new AtomicBoolean();
+            Disposable d = loop.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+            d.dispose();
+            CountDownLatch finished = new CountDownLatch(1);
+            loop.schedule(finished::countDown, 50, TimeUnit.MILLISECONDS);
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertFalse(ran.get());
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testSchedulePeriodicallyUntilDisposed() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            CountDownLatch latch = new CountDownLatch(3);
+            Disposable d = loop.schedulePeriodically(latch::countDown, 1, 1, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            d.dispose();
+            assertTrue(d.isDisposed());
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testWakesAfterParking() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            for (int i = 0; i < 20; i++) {
+                // give the loop time to park between submissions
+                Thread.sleep(5);
+                CountDownLatch latch = new CountDownLatch(1);
+                loop.schedule(latch::countDown);
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testErrorDoesNotStopLoop() throws InterruptedException {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        try {
+            loop.schedule(() -> {
+                throw new RuntimeException("boo");
+            });
+            CountDownLatch latch = new CountDownLatch(1);
+            loop.schedule(latch::countDown);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testDisposedLoopIgnoresTasks() {
+        EventLoop loop = new EventLoop(SchedulerHelper.createThreadFactory("test"));
+        loop.dispose();
+        assertTrue(loop.isDisposed());
+        assertTrue(Disposable.disposed() == loop.schedule(() -> {
+        }));
+        SchedulerEventLoop s = new SchedulerEventLoop(SchedulerHelper.createThreadFactory("test"));
+        s.shutdown();
+        assertTrue(s.createWorker() == WorkerDisposed.INSTANCE);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // do nothing
+        }
+    }
+}
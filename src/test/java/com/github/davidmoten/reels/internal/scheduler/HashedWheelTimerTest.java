@@ -0,0 +1,184 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.Disposable;
+
+public class HashedWheelTimerTest {
+
+    private static final Executor IMMEDIATE = Runnable::run;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTickMustBePositive() {
+        new HashedWheelTimer(0, TimeUnit.MILLISECONDS, SchedulerHelper.createThreadFactory("test"));
+    }
+
+    @Test
+    public void testFiresAfterDelay() throws InterruptedException {
+        HashedWheelTimer timer = timer(8);
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            long start = System.nanoTime();
+            // longer than one rotation of the wheel (8 ticks)
+            timer.schedule(latch::countDown, 30, TimeUnit.MILLISECONDS, IMMEDIATE);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+            waitForPending(timer, 0);
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testZeroAndNegativeDelayFire() throws InterruptedException {
+        HashedWheelTimer timer = timer(8);
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            timer.schedule(latch::countDown, 0, TimeUnit.MILLISECONDS, IMMEDIATE);
+            timer.schedule(latch::countDown, -1, TimeUnit.MILLISECONDS, IMMEDIATE);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testMaximumDelayDoesNotOverflowAndFire() throws InterruptedException {
+        HashedWheelTimer timer = timer(8);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            Disposable d1 = timer.schedule(count::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS, IMMEDIATE);
+            Disposable d2 = timer.schedule(count::incrementAndGet, Long.MAX_VALUE, TimeUnit.DAYS, IMMEDIATE);
+            CountDownLatch latch = new CountDownLatch(1);
+            timer.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS, IMMEDIATE);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            // the two timeouts are still waiting
+            waitForPending(timer, 2);
+            assertEquals(0, count.get());
+            d1.dispose();
+            d2.dispose();
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testCancelledDoesNotFireAndIsRemoved() throws InterruptedException {
+        HashedWheelTimer timer = timer(8);
+        try {
+            AtomicInteger count = new AtomicInteger();
+            Disposable d = timer.schedule(count::incrementAndGet, 20, TimeUnit.MILLISECONDS, IMMEDIATE);
+            d.dispose();
+            assertTrue(d.isDisposed());
+            CountDownLatch latch = new CountDownLatch(1);
+            timer.schedule(latch::countDown, 40, TimeUnit.MILLISECONDS, IMMEDIATE);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, count.get());
+            waitForPending(timer, 0);
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testPeriodic() throws InterruptedException {
+        HashedWheelTimer timer = timer(8);
+        try {
+            CountDownLatch latch = new CountDownLatch(5);
+            Disposable d = timer.schedulePeriodically(latch::countDown, 1, 3, TimeUnit.MILLISECONDS, IMMEDIATE);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, timer.pending());
+            d.dispose();
+            waitForPending(timer, 0);
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testPeriodShorterThanTickFiresEveryTick() throws InterruptedException {
+        // 512 ticks per revolution so a skipped timeout would wait about 0.5s
+        HashedWheelTimer timer = timer(512);
+        try {
+            CountDownLatch latch = new CountDownLatch(100);
+            Disposable d = timer.schedulePeriodically(latch::countDown, 0, 250, TimeUnit.MICROSECONDS, IMMEDIATE);
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+            d.dispose();
+            waitForPending(timer, 0);
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testPeriodicCatchesUpWhenTimerLags() throws InterruptedException {
+        HashedWheelTimer timer = timer(512);
+        try {
+            CountDownLatch latch = new CountDownLatch(100);
+            AtomicInteger count = new AtomicInteger();
+            // the first submission holds up the timer thread for 20 ticks so the
+            // following deadlines fall in ticks that are already late
+            Executor lagging = r -> {
+                if (count.getAndIncrement() == 0) {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        // do nothing
+                    }
+                }
+                r.run();
+            };
+            Disposable d = timer.schedulePeriodically(latch::countDown, 0, 2, TimeUnit.MILLISECONDS, lagging);
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+            d.dispose();
+            waitForPending(timer, 0);
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testManyTimersAllFire() throws InterruptedException {
+        HashedWheelTimer timer = timer(16);
+        try {
+            int n = 100000;
+            CountDownLatch latch = new CountDownLatch(n);
+            for (int i = 0; i < n; i++) {
+                timer.schedule(latch::countDown, i % 50, TimeUnit.MILLISECONDS, IMMEDIATE);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            waitForPending(timer, 0);
+        } finally {
+            timer.dispose();
+        }
+    }
+
+    @Test
+    public void testScheduleAfterDisposeIsDisposed() {
+        HashedWheelTimer timer = timer(8);
+        timer.dispose();
+        assertTrue(timer.isDisposed());
+        assertTrue(timer.schedule(() -> {
+        }, 1, TimeUnit.MILLISECONDS, IMMEDIATE).isDisposed());
+    }
+
+    private static HashedWheelTimer timer(int wheelSize) {
+        return new HashedWheelTimer(1, TimeUnit.MILLISECONDS, wheelSize, SchedulerHelper.createThreadFactory("test"));
+    }
+
+    private static void waitForPending(HashedWheelTimer timer, long expected) throws InterruptedException {
+        long t = System.currentTimeMillis();
+        while (timer.pending() != expected && System.currentTimeMillis() - t < 5000) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, timer.pending());
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Worker;
+
+public class SchedulerComputationStealingTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeMustBePositive() {
+        new SchedulerComputationStealing(0);
+    }
+
+    @Test
+    public void testShutdown() {
+        SchedulerComputationStealing s = new SchedulerComputationStealing(2);
+        s.shutdown();
+        assertTrue(Disposable.disposed() == s.schedule(() -> {
+        }));
+        assertTrue(Disposable.disposed() == s.schedule(() -> {
+        }, 1, TimeUnit.SECONDS));
+        assertTrue(Disposable.disposed() == s.schedulePeriodically(() -> {
+        }, 1, 2, TimeUnit.SECONDS));
+        assertSame(WorkerDisposed.INSTANCE, s.createWorker());
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        SchedulerComputationStealing s = new SchedulerComputationStealing(2);
+        s.schedule(() -> latch.countDown());
+        s.schedule(() -> latch.countDown());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        s.shutdown();
+    }
+
+    @Test
+    public void testScheduleWithDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        SchedulerComputationStealing s = new SchedulerComputationStealing(2);
+        s.schedule(() -> latch.countDown(), 1, TimeUnit.MILLISECONDS);
+        s.createWorker().schedule(() -> latch.countDown(), 1, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        s.shutdown();
+    }
+
+    @Test
+    public void testSchedulePeriodically() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(4);
+        SchedulerComputationStealing s = new SchedulerComputationStealing(2);
+        Disposable a = s.schedulePeriodically(() -> latch.countDown(), 1, 1, TimeUnit.MILLISECONDS);
+        Disposable b = s.createWorker().schedulePeriodically(() -> latch.countDown(), 1, 1, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        a.dispose();
+        b.dispose();
+        s.shutdown();
+    }
+
+    @Test
+    public void testDisposedWorkerDoesNotRunQueuedTask() throws InterruptedException {
+        SchedulerComputationStealing s = new SchedulerComputationStealing(1);
+        try {
+            CountDownLatch block = new CountDownLatch(1);
+            CountDownLatch blocked = new CountDownLatch(1);
+            s.schedule(() -> {
+                blocked.countDown();
+                await(block);
+            });
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            Worker w = s.createWorker();
+            List<Integer> list = Collections.synchronizedList(new ArrayList<>());
+            w.schedule(() -> list.add(1));
+            w.dispose();
+            CountDownLatch after = new CountDownLatch(1);
+            s.schedule(() -> after.countDown());
+            block.countDown();
+            assertTrue(after.await(5, TimeUnit.SECONDS));
+            assertTrue(list.isEmpty());
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testIdleThreadStealsWorkerFromBusyThread() throws InterruptedException {
+        SchedulerComputationStealing s = new SchedulerComputationStealing(2);
+        try {
+            // workers are assigned threads round robin so w0 and w2 share a thread
+            Worker w0 = s.createWorker();
+            s.createWorker();
+            Worker w2 = s.createWorker();
+            CountDownLatch block = new CountDownLatch(1);
+            CountDownLatch blocked = new CountDownLatch(1);
+            AtomicReference<Thread> busy = new AtomicReference<>();
+            w0.schedule(() -> {
+                busy.set(Thread.currentThread());
+                blocked.countDown();
+                await(block);
+            });
+            assertTrue(blocked.await(5, TimeUnit.SECONDS));
+            AtomicReference<Thread> first = new AtomicReference<>();
+            AtomicReference<Thread> second = new AtomicReference<>();
+            CountDownLatch ran = new CountDownLatch(1);
+            w2.schedule(() -> {
+                first.set(Thread.currentThread());
+                ran.countDown();
+            });
+            assertTrue(ran.await(5, TimeUnit.SECONDS));
+            assertNotSame(busy.get(), first.get());
+            // the worker has moved so its next task goes straight to the thief
+            CountDownLatch ran2 = new CountDownLatch(1);
+            w2.schedule(() -> {
+                second.set(Thread.currentThread());
+                ran2.countDown();
+            });
+            assertTrue(ran2.await(5, TimeUnit.SECONDS));
+            assertSame(first.get(), second.get());
+            assertEquals(0, s.queued(0) + s.queued(1));
+            block.countDown();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testWorkerTasksRunInOrder() throws InterruptedException {
+        SchedulerComputationStealing s = new SchedulerComputationStealing(4);
+        try {
+            Worker w = s.createWorker();
+            int n = 10000;
+            List<Integer> list = new ArrayList<>();
+            CountDownLatch latch = new CountDownLatch(1);
+            // each task schedules the next like an actor drain does so there is
+            // only ever one task for the worker queued or running
+            scheduleChain(w, list, 0, n, latch);
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, (int) list.get(i));
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    private static void scheduleChain(Worker w, List<Integer> list, int i, int n, CountDownLatch latch) {
+        w.schedule(() -> {
+            list.add(i);
+            if (i == n - 1) {
+                latch.countDown();
+            } else {
+                scheduleChain(w, list, i + 1, n, latch);
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.github.davidmoten.reels.internal.scheduler;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
@@ -8,6 +11,8 @@ import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Placement;
+import com.github.davidmoten.reels.Worker;
 
 public class SchedulerComputationStickyTest {
 
@@ -23,6 +28,19 @@ public class SchedulerComputationStickyTest {
         }, 1, 2, TimeUnit.SECONDS));
     }
 
+    @Test
+    public void testPlacementPropertyIsCaseInsensitive() {
+        assertEquals(Placement.LEAST_LOADED, SchedulerComputationSticky.placement("least_loaded"));
+        assertEquals(Placement.ROUND_ROBIN, SchedulerComputationSticky.placement(" Round_Robin "));
+        assertEquals(Placement.POWER_OF_TWO_CHOICES, SchedulerComputationSticky.placement("POWER_OF_TWO_CHOICES"));
+    }
+
+    @Test
+    public void testPlacementPropertyMissingOrUnknownIsRandom() {
+        assertEquals(Placement.RANDOM, SchedulerComputationSticky.placement(null));
+        assertEquals(Placement.RANDOM, SchedulerComputationSticky.placement("leastloaded"));
+    }
+
     @Test
     public void testSchedule() throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(2);
@@ -64,4 +82,90 @@ public class SchedulerComputationStickyTest {
         b.dispose();
         s.shutdown();
     }
+
+    @Test
+    public void testEachPlacementRunsTasks() throws InterruptedException {
+        for (Placement placement : Placement.values()) {
+            for (boolean rebalance : new boolean[] { false, true }) {
+                SchedulerComputationSticky s = new SchedulerComputationSticky(placement, rebalance);
+                try {
+                    CountDownLatch latch = new CountDownLatch(3);
+                    s.schedule(() -> latch.countDown());
+                    Worker w = s.createWorker();
+                    w.schedule(() -> latch.countDown());
+                    w.schedule(() -> latch.countDown(), 1, TimeUnit.MILLISECONDS);
+                    assertTrue(latch.await(5, TimeUnit.SECONDS));
+                } finally {
+                    s.shutdown();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRoundRobinUsesEachThreadInTurn() {
+        SchedulerComputationSticky s = new SchedulerComputationSticky(Placement.ROUND_ROBIN, false);
+        try {
+            LoadReportingWorker first = s.choose();
+            int n = Runtime.getRuntime().availableProcessors();
+            for (int i = 1; i < n; i++) {
+                assertNotSame(first, s.choose());
+            }
+            assertSame(first, s.choose());
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testLeastLoadedAvoidsBusyThread() throws InterruptedException {
+        SchedulerComputationSticky s = new SchedulerComputationSticky(Placement.LEAST_LOADED, false);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            LoadReportingWorker busy = s.choose();
+            busy.schedule(() -> await(release));
+            busy.schedule(() -> {
+            });
+            assertEquals(2, busy.queued());
+            if (Runtime.getRuntime().availableProcessors() > 1) {
+                for (int i = 0; i < 10; i++) {
+                    assertNotSame(busy, s.choose());
+                }
+            }
+        } finally {
+            release.countDown();
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadCountingWorkerCounts() throws InterruptedException {
+        LoadCountingWorker w = new LoadCountingWorker(SchedulerHelper.createThreadFactory("test"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        w.schedule(() -> await(release));
+        Disposable d = w.schedule(() -> {
+        });
+        w.schedule(() -> finished.countDown());
+        assertEquals(3, w.queued());
+        // cancelling a task that hasn't run reduces the count
+        d.dispose();
+        assertEquals(2, w.queued());
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (w.queued() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, w.queued());
+        w.dispose();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // do nothing
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.Scheduler;
+
+public class SchedulerForkJoinPoolTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelismMustBePositive() {
+        Scheduler.forkJoin(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThreadFactoryMustNotBeNull() {
+        Scheduler.forkJoin(1, true, null);
+    }
+
+    @Test
+    public void testTimerIsCreatedOnFirstDelayedTask() throws InterruptedException {
+        SchedulerForkJoinPool s = new SchedulerForkJoinPool(1, true, new PrefixedForkJoinWorkerThreadFactory("test"));
+        try {
+            CountDownLatch latch = new CountDownLatch(3);
+            s.schedule(latch::countDown);
+            s.createWorker().schedule(latch::countDown);
+            assertFalse(s.timerCreated());
+            s.schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+            assertTrue(s.timerCreated());
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownBeforeTimerCreated() {
+        SchedulerForkJoinPool s = new SchedulerForkJoinPool(1, true, new PrefixedForkJoinWorkerThreadFactory("test"));
+        s.shutdown();
+        assertFalse(s.timerCreated());
+    }
+
+    @Test
+    public void testDedicatedPoolDoesNotUseCommonPool() throws InterruptedException {
+        Scheduler s = Scheduler.forkJoin(2);
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            s.schedule(() -> {
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            });
+            // delayed tasks are handed from the timer to the pool
+            s.schedule(() -> {
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            }, 1, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            for (Thread t : threads) {
+                assertTrue(t.getName().startsWith("ReelsForkJoin-"));
+                assertTrue(t.isDaemon());
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testAsyncModeRunsSubmissionsInOrderOnOneThread() throws InterruptedException {
+        Scheduler s = Scheduler.forkJoin(1, true, new PrefixedForkJoinWorkerThreadFactory("test"));
+        try {
+            int n = 100;
+            List<Integer> list = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(1);
+            s.schedule(() -> {
+                // tasks forked from a worker thread are queued locally, in async mode
+                // they are processed FIFO
+                for (int i = 0; i < n; i++) {
+                    int v = i;
+                    s.schedule(() -> {
+                        list.add(v);
+                        if (v == n - 1) {
+                            latch.countDown();
+                        }
+                    });
+                }
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < n; i++) {
+                assertTrue(list.get(i) == i);
+            }
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownDoesNotAffectCommonPool() {
+        Scheduler.forkJoin(1).shutdown();
+        assertFalse(ForkJoinPool.commonPool().isShutdown());
+    }
+}
@@ -13,6 +13,13 @@ import static org.mockito.Mockito.*;
 
 public class SchedulerFromExecutorTest {
 
+    @Test
+    public void testCreateDoesNotSubmitToExecutor() {
+        MockedScheduledExecutorService a = new MockedScheduledExecutorService();
+        new SchedulerFromExecutor(a, false);
+        a.assertEvents();
+    }
+
     @Test
     public void testScheduleDirect() {
         MockedScheduledExecutorService a = new MockedScheduledExecutorService();
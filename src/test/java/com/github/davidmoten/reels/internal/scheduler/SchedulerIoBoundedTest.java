@@ -0,0 +1,134 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.Disposable;
+
+public class SchedulerIoBoundedTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxThreadsMustBePositive() {
+        new SchedulerIoBounded(0);
+    }
+
+    @Test
+    public void testScheduleDelayedAndPeriodic() throws InterruptedException {
+        SchedulerIoBounded s = new SchedulerIoBounded(2);
+        try {
+            CountDownLatch latch = new CountDownLatch(4);
+            s.schedule(latch::countDown);
+            s.createWorker().schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+            Disposable d = s.schedulePeriodically(latch::countDown, 1, 1, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            d.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testBlockingActorsShareBoundedThreadsInArrivalOrder() throws InterruptedException {
+        int maxThreads = 2;
+        int n = 20;
+        RecordingQueue queue = new RecordingQueue();
+        SchedulerIoBounded s = new SchedulerIoBounded(maxThreads, queue);
+        Context c = Context.create();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(n);
+            List<Integer> order = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < n; i++) {
+                ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+                    order.add(m.content());
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    done.countDown();
+                }) //
+                        .scheduler(s) //
+                        .build();
+                a.tell(i);
+            }
+            long t = System.currentTimeMillis();
+            while (order.size() < maxThreads && System.currentTimeMillis() - t < 5000) {
+                Thread.sleep(1);
+            }
+            // only maxThreads actors are running, the rest are queued
+            assertEquals(maxThreads, order.size());
+            assertEquals(maxThreads, s.size());
+            assertEquals(n - maxThreads, s.queued());
+            release.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(maxThreads, s.size());
+            // the first actors went straight to new threads
+            assertEquals(new HashSet<>(Arrays.asList(0, 1)), new HashSet<>(order.subList(0, maxThreads)));
+            // queued actors were taken in the order they became ready
+            assertEquals(n - maxThreads, queue.offered.size());
+            synchronized (queue.taken) {
+                assertEquals(queue.offered, queue.taken);
+            }
+        } finally {
+            c.shutdownNow();
+            s.shutdown();
+        }
+    }
+
+    /**
+     * Records the tasks offered to and taken from the pool's queue. A task is
+     * recorded as taken atomically with its removal so concurrent pool threads
+     * cannot record out of order.
+     */
+    private static final class RecordingQueue extends LinkedBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = 1L;
+
+        final List<Runnable> offered = new CopyOnWriteArrayList<>();
+        final List<Runnable> taken = new ArrayList<>();
+
+        @Override
+        public boolean offer(Runnable r) {
+            offered.add(r);
+            return super.offer(r);
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            synchronized (taken) {
+                Runnable r = super.poll();
+                if (r != null) {
+                    taken.add(r);
+                    return r;
+                }
+            }
+            // the queue was empty (nothing is offered while the test waits here)
+            Runnable r = super.poll(timeout, unit);
+            if (r != null) {
+                synchronized (taken) {
+                    taken.add(r);
+                }
+            }
+            return r;
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            return poll(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+import com.github.davidmoten.reels.Worker;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerIo.EventLoopWorker;
+
+/**
+ * Sends messages to one long-lived actor on {@link Scheduler#io()} in bursts so
+ * that the actor goes idle and is rescheduled many times, and checks that its
+ * worker holds on to nothing (and, in the soak test, that used heap after a GC
+ * stays flat).
+ */
+public class SchedulerIoSoakTest {
+
+    private static final long SOAK_MESSAGES = Long.getLong("messages", 100_000_000L);
+    private static final long MAX_HEAP_GROWTH_BYTES = 16 * 1024 * 1024;
+    private static final int BURST = 1000;
+    private static final int REPORTS = 10;
+
+    @Test
+    public void testWorkerTracksNoTasksOverManyReschedules() throws InterruptedException {
+        run(1_000_000, false);
+    }
+
+    @Test
+    @Ignore("soak test, takes minutes (set -Dmessages to change the message count)")
+    public void testUsedHeapStaysFlat() throws InterruptedException {
+        run(SOAK_MESSAGES, true);
+    }
+
+    private static void run(long messages, boolean checkHeap) throws InterruptedException {
+        CapturingScheduler scheduler = new CapturingScheduler(Scheduler.io());
+        Context context = Context.create();
+        try {
+            CountDownLatch[] latch = new CountDownLatch[1];
+            ActorRef<Integer> actor = context.<Integer>matchAny(m -> {
+                if (m.content() == BURST - 1) {
+                    latch[0].countDown();
+                }
+            }) //
+                    .scheduler(scheduler) //
+                    .build();
+            long bursts = messages / BURST;
+            long reportEvery = Math.max(1, bursts / REPORTS);
+            long baseline = -1;
+            for (long b = 0; b < bursts; b++) {
+                latch[0] = new CountDownLatch(1);
+                for (int i = 0; i < BURST; i++) {
+                    actor.tell(i);
+                }
+                assertTrue(latch[0].await(10, TimeUnit.SECONDS));
+                if ((b + 1) % reportEvery == 0) {
+                    for (EventLoopWorker w : scheduler.workers) {
+                        assertEquals(0, w.tracked());
+                    }
+                    if (checkHeap) {
+                        long used = usedHeapAfterGc();
+                        if (baseline == -1) {
+                            baseline = used;
+                        } else {
+                            assertTrue("used heap grew from " + baseline + " to " + used + " bytes after "
+                                    + (b + 1) * BURST + " messages", used - baseline <= MAX_HEAP_GROWTH_BYTES);
+                        }
+                    }
+                }
+            }
+            assertTrue(!scheduler.workers.isEmpty());
+        } finally {
+            context.shutdownNow();
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime r = Runtime.getRuntime();
+        return r.totalMemory() - r.freeMemory();
+    }
+
+    /**
+     * Delegates to the io scheduler and keeps the workers it creates so that
+     * their tracked tasks can be checked.
+     */
+    private static final class CapturingScheduler implements Scheduler {
+
+        private final Scheduler scheduler;
+        final List<EventLoopWorker> workers = new CopyOnWriteArrayList<>();
+
+        CapturingScheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public Worker createWorker() {
+            EventLoopWorker w = (EventLoopWorker) scheduler.createWorker();
+            workers.add(w);
+            return w;
+        }
+
+        @Override
+        public void shutdown() {
+            // the io scheduler is shared so is not shut down
+        }
+
+        @Override
+        public Disposable schedule(Runnable run) {
+            return scheduler.schedule(run);
+        }
+
+        @Override
+        public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+            return scheduler.schedule(run, delay, unit);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable run, long initialDelay, long period, TimeUnit unit) {
+            return scheduler.schedulePeriodically(run, initialDelay, period, unit);
+        }
+    }
+}
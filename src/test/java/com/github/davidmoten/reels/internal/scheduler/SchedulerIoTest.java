@@ -1,14 +1,19 @@
 package com.github.davidmoten.reels.internal.scheduler;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 
+import com.github.davidmoten.reels.Disposable;
 import com.github.davidmoten.reels.Scheduler;
 import com.github.davidmoten.reels.Worker;
+import com.github.davidmoten.reels.internal.scheduler.SchedulerIo.EventLoopWorker;
 
 public class SchedulerIoTest {
 
@@ -24,4 +29,81 @@ public class SchedulerIoTest {
         assertTrue(w.isDisposed());
     }
 
+    @Test
+    public void testImmediateTasksAreNotTracked() throws InterruptedException {
+        EventLoopWorker w = (EventLoopWorker) Scheduler.io().createWorker();
+        try {
+            int n = 10000;
+            CountDownLatch latch = new CountDownLatch(n);
+            for (int i = 0; i < n; i++) {
+                w.schedule(latch::countDown);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, w.tracked());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void testDelayedTaskIsUntrackedOnceRun() throws InterruptedException {
+        EventLoopWorker w = (EventLoopWorker) Scheduler.io().createWorker();
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            Disposable d = w.schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            waitForTracked(w, 0);
+            assertTrue(d.isDisposed());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void testPeriodicTaskIsTrackedUntilDisposed() throws InterruptedException {
+        EventLoopWorker w = (EventLoopWorker) Scheduler.io().createWorker();
+        try {
+            CountDownLatch latch = new CountDownLatch(3);
+            Disposable d = w.schedulePeriodically(latch::countDown, 1, 1, TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, w.tracked());
+            d.dispose();
+            assertEquals(0, w.tracked());
+        } finally {
+            w.dispose();
+        }
+    }
+
+    @Test
+    public void testWorkerDisposeCancelsPendingAndQueuedTasks() throws InterruptedException {
+        EventLoopWorker w = (EventLoopWorker) Scheduler.io().createWorker();
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        w.schedule(() -> {
+            blocked.countDown();
+            try {
+                block.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        w.schedule(() -> ran.set(true));
+        Disposable delayed = w.schedule(() -> ran.set(true), 1, TimeUnit.MILLISECONDS);
+        w.dispose();
+        block.countDown();
+        assertTrue(delayed.isDisposed());
+        Thread.sleep(50);
+        assertFalse(ran.get());
+    }
+
+    private static void waitForTracked(EventLoopWorker w, int expected) throws InterruptedException {
+        long t = System.currentTimeMillis();
+        while (w.tracked() != expected && System.currentTimeMillis() - t < 5000) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, w.tracked());
+    }
+
 }
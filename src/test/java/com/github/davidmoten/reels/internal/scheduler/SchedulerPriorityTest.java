@@ -0,0 +1,142 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Scheduler;
+
+public class SchedulerPriorityTest {
+
+    @Test
+    public void testShutdown() {
+        SchedulerPriority s = new SchedulerPriority(1, 1, TimeUnit.MILLISECONDS);
+        s.shutdown();
+        assertTrue(Disposable.disposed() == s.schedule(() -> {
+        }));
+        assertTrue(Disposable.disposed() == s.schedule(() -> {
+        }, 1, TimeUnit.SECONDS));
+        assertTrue(Disposable.disposed() == s.schedulePeriodically(() -> {
+        }, 1, 2, TimeUnit.SECONDS));
+        assertSame(WorkerDisposed.INSTANCE, s.priority(1).createWorker());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSizeMustBePositive() {
+        new SchedulerPriority(0, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testHigherPriorityRunsFirst() throws InterruptedException {
+        SchedulerPriority s = new SchedulerPriority(1, 1, TimeUnit.HOURS);
+        try {
+            CountDownLatch release = blockThread(s);
+            List<String> list = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(4);
+            s.schedule(() -> add(list, "low1", finished));
+            s.priority(-1).schedule(() -> add(list, "lowest", finished));
+            s.schedule(() -> add(list, "low2", finished));
+            s.priority(5).createWorker().schedule(() -> add(list, "high", finished));
+            assertEquals(4, s.queued());
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("high", "low1", "low2", "lowest"), list);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testAgingPreventsStarvation() throws InterruptedException {
+        SchedulerPriority s = new SchedulerPriority(1, 10, TimeUnit.MILLISECONDS);
+        try {
+            CountDownLatch release = blockThread(s);
+            List<String> list = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(2);
+            s.schedule(() -> add(list, "low", finished));
+            Thread.sleep(100);
+            // only 20ms ahead of a new priority 0 task so the low task that has
+            // waited 100ms goes first
+            s.priority(2).schedule(() -> add(list, "high", finished));
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("low", "high"), list);
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testScheduleDelayedAndPeriodically() throws InterruptedException {
+        SchedulerPriority s = new SchedulerPriority(2, 1, TimeUnit.MILLISECONDS);
+        try {
+            CountDownLatch latch = new CountDownLatch(4);
+            s.priority(3).schedule(latch::countDown, 1, TimeUnit.MILLISECONDS);
+            Disposable d = s.priority(3).createWorker().schedulePeriodically(latch::countDown, 1, 1,
+                    TimeUnit.MILLISECONDS);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            d.dispose();
+        } finally {
+            s.shutdown();
+        }
+    }
+
+    @Test
+    public void testActorsAtDifferentPriorities() throws InterruptedException {
+        SchedulerPriority s = new SchedulerPriority(1, 1, TimeUnit.HOURS);
+        Context c = Context.create();
+        try {
+            List<String> list = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(4);
+            ActorRef<String> bulk = c.<String>matchAny(m -> add(list, m.content(), finished)) //
+                    .scheduler(s) //
+                    .build();
+            Scheduler high = s.priority(10);
+            ActorRef<String> control = c.<String>matchAny(m -> add(list, m.content(), finished)) //
+                    .scheduler(high) //
+                    .build();
+            CountDownLatch release = blockThread(s);
+            bulk.tell("bulk1");
+            bulk.tell("bulk2");
+            control.tell("control1");
+            control.tell("control2");
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("control1", "control2", "bulk1", "bulk2"), list);
+        } finally {
+            c.shutdownNow();
+            s.shutdown();
+        }
+    }
+
+    private static CountDownLatch blockThread(SchedulerPriority s) throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        s.priority(Integer.MAX_VALUE).schedule(() -> {
+            blocked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // do nothing
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static void add(List<String> list, String s, CountDownLatch latch) {
+        list.add(s);
+        latch.countDown();
+    }
+}
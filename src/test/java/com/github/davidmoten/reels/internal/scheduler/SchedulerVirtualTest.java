@@ -0,0 +1,113 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.github.davidmoten.reels.ActorRef;
+import com.github.davidmoten.reels.Context;
+import com.github.davidmoten.reels.Disposable;
+import com.github.davidmoten.reels.Worker;
+
+public class SchedulerVirtualTest {
+
+    @Test
+    public void testShutdown() {
+        SchedulerVirtual s = new SchedulerVirtual();
+        s.shutdown();
+        assertTrue(Disposable.disposed() == s.schedule(() -> {
+        }));
+        assertTrue(Disposable.disposed() == s.schedule(() -> {
+        }, 1, TimeUnit.SECONDS));
+        assertTrue(Disposable.disposed() == s.schedulePeriodically(() -> {
+        }, 1, 2, TimeUnit.SECONDS));
+        assertSame(WorkerDisposed.INSTANCE, s.createWorker());
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        SchedulerVirtual s = new SchedulerVirtual();
+        s.schedule(() -> latch.countDown());
+        s.createWorker().schedule(() -> latch.countDown());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        s.shutdown();
+    }
+
+    @Test
+    public void testScheduleWithDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        SchedulerVirtual s = new SchedulerVirtual();
+        s.schedule(() -> latch.countDown(), 1, TimeUnit.MILLISECONDS);
+        s.createWorker().schedule(() -> latch.countDown(), 1, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        s.shutdown();
+    }
+
+    @Test
+    public void testSchedulePeriodically() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(4);
+        SchedulerVirtual s = new SchedulerVirtual();
+        Disposable a = s.schedulePeriodically(() -> latch.countDown(), 1, 1, TimeUnit.MILLISECONDS);
+        Disposable b = s.createWorker().schedulePeriodically(() -> latch.countDown(), 1, 1, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        a.dispose();
+        b.dispose();
+        s.shutdown();
+    }
+
+    @Test
+    public void testDisposedWorkerIgnoresTasks() {
+        SchedulerVirtual s = new SchedulerVirtual();
+        Worker w = s.createWorker();
+        w.dispose();
+        assertTrue(w.isDisposed());
+        assertTrue(Disposable.disposed() == w.schedule(() -> {
+        }));
+        s.shutdown();
+    }
+
+    @Test
+    public void testManyActorsBlockingAtOnce() throws InterruptedException {
+        int n = 200;
+        SchedulerVirtual s = new SchedulerVirtual();
+        Context c = Context.create();
+        try {
+            CountDownLatch started = new CountDownLatch(n);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger count = new AtomicInteger();
+            for (int i = 0; i < n; i++) {
+                ActorRef<Integer> a = c.<Integer>matchAny(m -> {
+                    started.countDown();
+                    // every actor blocks until all actors are blocked
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    count.incrementAndGet();
+                }) //
+                        .scheduler(s) //
+                        .build();
+                a.tell(i);
+            }
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            release.countDown();
+            long t = System.currentTimeMillis();
+            while (count.get() < n && System.currentTimeMillis() - t < 10000) {
+                Thread.sleep(10);
+            }
+            assertEquals(n, count.get());
+        } finally {
+            c.shutdownNow();
+            s.shutdown();
+        }
+    }
+
+}
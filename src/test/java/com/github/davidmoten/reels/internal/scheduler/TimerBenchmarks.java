@@ -0,0 +1,67 @@
+package com.github.davidmoten.reels.internal.scheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Schedules {@link #TIMERS} concurrent timers (delays spread over
+ * {@link #MAX_DELAY_MS}) that each count down a latch on the ForkJoin common
+ * pool, then cancels none and waits for them all. Compares the hashed wheel
+ * timer with the single thread ScheduledExecutorService previously used by the
+ * forkJoin scheduler.
+ */
+@State(Scope.Benchmark)
+public class TimerBenchmarks {
+
+    static final int TIMERS = Integer.getInteger("timers", 1000000);
+
+    static final int MAX_DELAY_MS = 100;
+
+    private static final Executor POOL = ForkJoinPool.commonPool();
+
+    private HashedWheelTimer wheel;
+    private ScheduledExecutorService scheduled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        wheel = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, SchedulerHelper.createThreadFactory("bench-wheel"));
+        scheduled = new ScheduledThreadPoolExecutor(1, SchedulerHelper.createThreadFactory("bench-scheduled"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.dispose();
+        scheduled.shutdownNow();
+    }
+
+    @Benchmark
+    public void hashedWheelTimer() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(TIMERS);
+        Runnable countDown = latch::countDown;
+        for (int i = 0; i < TIMERS; i++) {
+            wheel.schedule(countDown, i % MAX_DELAY_MS, TimeUnit.MILLISECONDS, POOL);
+        }
+        latch.await(60, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void scheduledExecutorService() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(TIMERS);
+        Runnable countDown = () -> POOL.execute(latch::countDown);
+        for (int i = 0; i < TIMERS; i++) {
+            scheduled.schedule(countDown, i % MAX_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        latch.await(60, TimeUnit.SECONDS);
+    }
+}